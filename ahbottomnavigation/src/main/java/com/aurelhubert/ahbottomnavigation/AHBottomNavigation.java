@@ -6,17 +6,27 @@ import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Rect;
 import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.support.annotation.ColorInt;
 import android.support.design.widget.CoordinatorLayout;
 import android.support.design.widget.FloatingActionButton;
 import android.support.v4.content.ContextCompat;
+import android.support.v4.view.OnApplyWindowInsetsListener;
 import android.support.v4.view.ViewCompat;
+import android.support.v4.view.WindowInsetsCompat;
 import android.support.v4.view.animation.LinearOutSlowInInterpolator;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
 import android.util.DisplayMetrics;
 import android.util.Log;
@@ -24,8 +34,10 @@ import android.util.TypedValue;
 import android.view.Display;
 import android.view.Gravity;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewAnimationUtils;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.widget.FrameLayout;
@@ -33,8 +45,16 @@ import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
+import com.aurelhubert.ahbottomnavigation.notification.AHNotification;
+import com.aurelhubert.ahbottomnavigation.notification.AHNotificationRenderer;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * AHBottomNavigationLayout
@@ -48,44 +68,150 @@ public class AHBottomNavigation extends FrameLayout {
 	// Static
 	private static String TAG = "AHBottomNavigation";
 	private static final int MAX_ITEMS = 5;
+	private static final String WARNING_MAX_ITEMS = "The items list should not have more than 5 items";
+	private static final String WARNING_POSITION_OUT_OF_BOUNDS = "The position is out of bounds of the items";
+	private static final int NOTIFICATION_COUNT_NONE = -1;
+	private static final int NOTIFICATION_COUNT_MAX = 99;
 
 	// Listener
 	private OnTabSelectedListener tabSelectedListener;
 	private OnNavigationPositionListener navigationPositionListener;
+	private OnTabSelectedListener[] tabSelectedListeners = new OnTabSelectedListener[0];
+	private OnTabReselectedListener[] tabReselectedListeners = new OnTabReselectedListener[0];
+	private OnNavigationPositionListener[] navigationPositionListeners = new OnNavigationPositionListener[0];
+	private OnTabPressListener[] tabPressListeners = new OnTabPressListener[0];
+	private final OnNavigationPositionListener navigationPositionDispatcher = new OnNavigationPositionListener() {
+		@Override
+		public void onPositionChange(int y) {
+			OnNavigationPositionListener[] listeners = navigationPositionListeners;
+			for (int i = 0; i < listeners.length; i++) {
+				listeners[i].onPositionChange(y);
+			}
+		}
+	};
 
 	// Variables
 	private Context context;
 	private Resources resources;
 	private ArrayList<AHBottomNavigationItem> items = new ArrayList<>();
+	// Current item, colored mode, colors and sizes: the view renders its changes
+	private final AHBottomNavigationState navigationState = new AHBottomNavigationState();
 	private ArrayList<View> views = new ArrayList<>();
+	// Shared with the behavior
+	private final AHBottomNavigationAnchoredViews anchoredViews = new AHBottomNavigationAnchoredViews();
 	private AHBottomNavigationBehavior<AHBottomNavigation> bottomNavigationBehavior;
 	private LinearLayout linearLayoutContainer;
+	private RecyclerView scrollableContainer;
+	private ScrollableItemsAdapter scrollableAdapter;
+	private int scrollableItemWidth;
 	private View backgroundColorView;
 	private Animator circleRevealAnim;
-	private boolean colored = false;
 	private boolean selectedBackgroundVisible = false;
 	private boolean translucentNavigationEnabled;
 	private boolean isBehaviorTranslationSet = false;
-	private int currentItem = 0;
-	private int currentColor = 0;
 	private boolean behaviorTranslationEnabled = true;
 	private boolean needHideBottomNavigation = false;
 	private boolean hideBottomNavigationWithAnimation = false;
+	private boolean restoreHiddenState = false;
+	private boolean restoredHidden = false;
 	private boolean soundEffectsEnabled = true;
+	private boolean navigationPositionFinalOnly = false;
+	private boolean strictMode = false;
+	private boolean scrollable = false;
+	private boolean maxItemsWarned = false;
 
 	// Variables (Styles)
 	private Typeface titleTypeface;
 	private int defaultBackgroundColor = Color.TRANSPARENT;
-	private @ColorInt int itemActiveColor;
-	private @ColorInt int itemInactiveColor;
-	private @ColorInt int titleColorActive;
-	private @ColorInt int titleColorInactive;
-	private @ColorInt int coloredTitleColorActive;
-	private @ColorInt int coloredTitleColorInactive;
-	private float titleActiveTextSize, titleInactiveTextSize;
 	private int bottomNavigationHeight, navigationBarHeight = 0;
+	private int navigationBarInset = 0;
 	private boolean forceTint = false;
 
+	// Variables (Touch: the items are hit-tested by the bottom navigation in classic mode)
+	private int[] itemLefts = new int[MAX_ITEMS];
+	private int[] itemRights = new int[MAX_ITEMS];
+	private int itemBoundsCount = 0;
+	private int touchedItem = CURRENT_ITEM_NONE;
+	// Used by accessibility and keyboard clicks, and by the items in scrollable mode
+	private final OnClickListener itemClickListener = new OnClickListener() {
+		@Override
+		public void onClick(View v) {
+			int position = scrollableContainer != null ?
+					scrollableContainer.getChildAdapterPosition(v) : views.indexOf(v);
+			if (position != CURRENT_ITEM_NONE) {
+				updateItems(position, true);
+			}
+		}
+	};
+
+	// Variables (Press)
+	private int pressedItem = CURRENT_ITEM_NONE;
+	private float pressDownX, pressDownY;
+	private int touchSlop;
+
+	// Variables (Tab switch latency, uptime milliseconds)
+	private OnTabSwitchLatencyListener tabSwitchLatencyListener;
+	private long lastTouchUpTime = 0;
+	private int latencyPosition = CURRENT_ITEM_NONE;
+	private long latencyTapTime, latencySelectionTime, latencyContentReadyTime;
+	private final Runnable latencyFrameRunnable = new Runnable() {
+		@Override
+		public void run() {
+			dispatchTabSwitchLatency();
+		}
+	};
+
+	// Variables (Layout counters, null when disabled)
+	private AHBottomNavigationStats stats;
+
+	// Variables (Prewarm)
+	private AHBottomNavigationPrewarmScheduler prewarmScheduler;
+	private final Runnable startPrewarmRunnable = new Runnable() {
+		@Override
+		public void run() {
+			if (prewarmScheduler != null) {
+				prewarmScheduler.start(navigationState.getCurrentItem(), items.size());
+			}
+		}
+	};
+
+	// Variables (Notifications)
+	private ArrayList<AHNotification> notifications = new ArrayList<>();
+	private AHNotificationRenderer notificationRenderer;
+	private final Rect notificationBounds = new Rect();
+	private @ColorInt int notificationTextColor;
+	private @ColorInt int notificationBackgroundColor;
+
+	// Variables (Items published from any thread, applied on the UI thread)
+	// Posted to the main looper: a view detached before API 24 runs its posts only once attached
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+	private final AtomicReference<List<AHBottomNavigationItem>> pendingItems = new AtomicReference<>();
+	// Rendered fields of the items: the items are mutable, a published item is compared to them
+	private final ArrayList<RenderedItem> renderedItems = new ArrayList<>();
+	private final Runnable applyPendingItemsRunnable = new Runnable() {
+		@Override
+		public void run() {
+			applyPendingItems();
+		}
+	};
+
+	// Variables (Notification counts: written from any thread without lock, committed on the UI thread)
+	// The array is replaced by a larger copy when a position is out of its bounds
+	private final AtomicReference<AtomicIntegerArray> pendingNotificationCounts =
+			new AtomicReference<>(newPendingNotificationCounts(MAX_ITEMS));
+	// Number of items, read to validate the positions from any thread
+	private volatile int itemsCount = 0;
+	// UI thread only
+	private int[] committedNotificationCounts = newNotificationCounts(MAX_ITEMS);
+	private final AtomicBoolean notificationCommitScheduled = new AtomicBoolean(false);
+	private final AHNotification[] countNotifications = new AHNotification[NOTIFICATION_COUNT_MAX + 2];
+	private final Runnable notificationCommitRunnable = new Runnable() {
+		@Override
+		public void run() {
+			commitNotificationCounts();
+		}
+	};
+
 	/**
 	 * Constructors
 	 */
@@ -113,12 +239,271 @@ public class AHBottomNavigation extends FrameLayout {
 	@Override
 	protected void onSizeChanged(int w, int h, int oldw, int oldh) {
 		super.onSizeChanged(w, h, oldw, oldh);
-		createItems();
+		// Only the width is used to build the items, a new bottom inset does not need a rebuild
+		if (w != oldw) {
+			createItems();
+		}
+	}
+
+	@Override
+	protected void dispatchDraw(Canvas canvas) {
+		super.dispatchDraw(canvas);
+		// Notifications are drawn over the items, no view is created for them
+		for (int i = 0; i < notifications.size(); i++) {
+			AHNotification notification = notifications.get(i);
+			if (notification != null && !notification.isEmpty() && hasItemBounds(i)) {
+				View view = getItemView(i);
+				notificationRenderer.draw(canvas, notification, getItemCenterX(view), getItemTop(view),
+						notificationTextColor, notificationBackgroundColor);
+			}
+		}
+	}
+
+	@Override
+	public boolean dispatchTouchEvent(MotionEvent ev) {
+		// Input received: the main thread is not idle anymore
+		if (prewarmScheduler != null) {
+			prewarmScheduler.stop();
+		}
+		if (ev.getActionMasked() == MotionEvent.ACTION_DOWN) {
+			lastTouchUpTime = 0;
+			pressDownX = ev.getX();
+			pressDownY = ev.getY();
+		}
+		if (scrollableContainer != null && tabPressListeners.length > 0 && isEnabled()) {
+			trackScrollableTabPress(ev);
+		}
+		if (scrollableContainer != null && ev.getActionMasked() == MotionEvent.ACTION_UP) {
+			recordScrollableTouchUp(ev);
+		}
+		return super.dispatchTouchEvent(ev);
+	}
+
+	/**
+	 * Record the input time of a selection in scrollable mode, used for the tab switch latency
+	 * The item is clicked after the touch up: the time is only kept for a tap (within the touch
+	 * slop) on an item that is not selected yet
+	 */
+	private void recordScrollableTouchUp(MotionEvent ev) {
+		float x = ev.getX();
+		float y = ev.getY();
+		int position = getItemPositionAt(x, y);
+		if (position != CURRENT_ITEM_NONE && position != navigationState.getCurrentItem()
+				&& Math.abs(x - pressDownX) <= touchSlop && Math.abs(y - pressDownY) <= touchSlop) {
+			lastTouchUpTime = ev.getEventTime();
+		}
+	}
+
+	/**
+	 * Call the OnTabPressListeners in scrollable mode, where the items handle their touches:
+	 * pressed on ACTION_DOWN over an item, canceled when the touch moves beyond the touch slop
+	 * (the items are scrolled and the item view does not receive the click)
+	 */
+	private void trackScrollableTabPress(MotionEvent ev) {
+		switch (ev.getActionMasked()) {
+			case MotionEvent.ACTION_DOWN:
+				cancelTabPress();
+				// pressDownX and pressDownY are set by dispatchTouchEvent
+				dispatchTabPressed(getItemPositionAt(pressDownX, pressDownY));
+				break;
+			case MotionEvent.ACTION_MOVE:
+				if (Math.abs(ev.getX() - pressDownX) > touchSlop || Math.abs(ev.getY() - pressDownY) > touchSlop) {
+					cancelTabPress();
+				}
+				break;
+			case MotionEvent.ACTION_UP:
+				// Within the touch slop, the press ends with the click of the item
+				pressedItem = CURRENT_ITEM_NONE;
+				break;
+			case MotionEvent.ACTION_CANCEL:
+				cancelTabPress();
+				break;
+		}
+	}
+
+	/**
+	 * Call the OnTabPressListeners for a new press
+	 */
+	private void dispatchTabPressed(int position) {
+		pressedItem = position;
+		if (position == CURRENT_ITEM_NONE) {
+			return;
+		}
+		OnTabPressListener[] listeners = tabPressListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onTabPressed(position);
+		}
+	}
+
+	private void cancelTabPress() {
+		// The touch up will not select an item
+		lastTouchUpTime = 0;
+		if (pressedItem == CURRENT_ITEM_NONE) {
+			return;
+		}
+		int position = pressedItem;
+		pressedItem = CURRENT_ITEM_NONE;
+		OnTabPressListener[] listeners = tabPressListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onTabPressCanceled(position);
+		}
+	}
+
+	@Override
+	public void requestLayout() {
+		super.requestLayout();
+		// Also called by the FrameLayout constructor, before the fields are initialized
+		if (stats != null) {
+			stats.layoutRequests++;
+		}
+	}
+
+	@Override
+	protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+		super.onLayout(changed, left, top, right, bottom);
+		updateItemBounds();
+	}
+
+	/**
+	 * Store the horizontal bounds of the items (classic mode) for the hit test
+	 */
+	private void updateItemBounds() {
+		int count = scrollableContainer == null ? views.size() : 0;
+		if (itemLefts.length < count) {
+			itemLefts = new int[count];
+			itemRights = new int[count];
+		}
+		for (int i = 0; i < count; i++) {
+			View view = views.get(i);
+			itemLefts[i] = view.getLeft();
+			itemRights[i] = view.getRight();
+		}
+		itemBoundsCount = count;
+	}
+
+	/**
+	 * Return the item containing the given x (in the items container coordinates)
+	 *
+	 * @return The position, or CURRENT_ITEM_NONE
+	 */
+	private int findItemAt(float localX) {
+		int low = 0;
+		int high = itemBoundsCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (localX < itemLefts[middle]) {
+				high = middle - 1;
+			} else if (localX >= itemRights[middle]) {
+				low = middle + 1;
+			} else {
+				return middle;
+			}
+		}
+		return CURRENT_ITEM_NONE;
+	}
+
+	@Override
+	public boolean onInterceptTouchEvent(MotionEvent ev) {
+		// In classic mode, the touches are handled by the bottom navigation instead of the items
+		if (scrollableContainer == null && linearLayoutContainer != null && isEnabled()) {
+			return true;
+		}
+		return super.onInterceptTouchEvent(ev);
+	}
+
+	@Override
+	public boolean onTouchEvent(MotionEvent ev) {
+		if (scrollableContainer != null || linearLayoutContainer == null || !isEnabled()) {
+			return super.onTouchEvent(ev);
+		}
+		float x = ev.getX();
+		float y = ev.getY();
+		switch (ev.getActionMasked()) {
+			case MotionEvent.ACTION_DOWN:
+				cancelTabPress();
+				touchedItem = getItemPositionAt(x, y);
+				setItemPressed(touchedItem, true, x, y);
+				dispatchTabPressed(touchedItem);
+				break;
+			case MotionEvent.ACTION_MOVE:
+				if (touchedItem != CURRENT_ITEM_NONE) {
+					if (isInTouchedItem(x, y)) {
+						setItemPressed(touchedItem, true, x, y);
+					} else {
+						// Leaving the item (beyond the touch slop) abandons the press
+						setItemPressed(touchedItem, false, x, y);
+						touchedItem = CURRENT_ITEM_NONE;
+						cancelTabPress();
+					}
+				}
+				break;
+			case MotionEvent.ACTION_UP:
+				if (touchedItem != CURRENT_ITEM_NONE) {
+					int position = touchedItem;
+					touchedItem = CURRENT_ITEM_NONE;
+					// The press ends with the selection of the item
+					pressedItem = CURRENT_ITEM_NONE;
+					setItemPressed(position, false, x, y);
+					// Input time of the selection, used for the tab switch latency
+					if (position != navigationState.getCurrentItem()) {
+						lastTouchUpTime = ev.getEventTime();
+					}
+					// Sound, accessibility event and selection (itemClickListener)
+					views.get(position).performClick();
+					lastTouchUpTime = 0;
+				}
+				break;
+			case MotionEvent.ACTION_CANCEL:
+				setItemPressed(touchedItem, false, x, y);
+				touchedItem = CURRENT_ITEM_NONE;
+				cancelTabPress();
+				break;
+		}
+		return true;
+	}
+
+	/**
+	 * Return if the point is still over the touched item (with the touch slop)
+	 */
+	private boolean isInTouchedItem(float x, float y) {
+		float localX = x - linearLayoutContainer.getLeft();
+		return y >= linearLayoutContainer.getTop() - touchSlop && y < linearLayoutContainer.getBottom() + touchSlop
+				&& localX >= itemLefts[touchedItem] - touchSlop && localX < itemRights[touchedItem] + touchSlop;
+	}
+
+	/**
+	 * Update the pressed state (and the ripple hotspot) of an item, the other items are untouched
+	 */
+	private void setItemPressed(int position, boolean pressed, float x, float y) {
+		if (position < 0 || position >= views.size()) {
+			return;
+		}
+		View view = views.get(position);
+		if (pressed && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			view.drawableHotspotChanged(x - linearLayoutContainer.getLeft() - view.getLeft(),
+					y - linearLayoutContainer.getTop() - view.getTop());
+		}
+		if (view.isPressed() != pressed) {
+			view.setPressed(pressed);
+		}
+	}
+
+	@Override
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+		if (prewarmScheduler != null) {
+			removeCallbacks(startPrewarmRunnable);
+			prewarmScheduler.stop();
+			prewarmScheduler.flush();
+		}
 	}
 
 	@Override
 	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
 		super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+		if (stats != null) {
+			stats.measurePasses++;
+		}
 		if (!isBehaviorTranslationSet) {
 			//The translation behavior has to be set up after the super.onMeasure has been called.
 			setBehaviorTranslationEnabled(behaviorTranslationEnabled);
@@ -130,7 +515,10 @@ public class AHBottomNavigation extends FrameLayout {
 	protected Parcelable onSaveInstanceState() {
 		Bundle bundle = new Bundle();
 		bundle.putParcelable("superState", super.onSaveInstanceState());
-		bundle.putInt("current_item", currentItem);
+		bundle.putInt("current_item", navigationState.getCurrentItem());
+		bundle.putBoolean("colored", navigationState.isColored());
+		bundle.putBoolean("hidden", isHidden());
+		bundle.putFloat("translationY", getTranslationY());
 		return bundle;
 	}
 
@@ -138,7 +526,18 @@ public class AHBottomNavigation extends FrameLayout {
 	protected void onRestoreInstanceState(Parcelable state) {
 		if (state instanceof Bundle) {
 			Bundle bundle = (Bundle) state;
-			currentItem = bundle.getInt("current_item");
+			navigationState.setCurrentItem(bundle.getInt("current_item"));
+			navigationState.setColored(bundle.getBoolean("colored"));
+			// Restore the position without animation, before the first frame
+			restoredHidden = bundle.getBoolean("hidden");
+			navigationState.setHidden(restoredHidden);
+			setTranslationY(bundle.getFloat("translationY"));
+			if (bottomNavigationBehavior != null) {
+				bottomNavigationBehavior.restoreHidden(this, restoredHidden, getTranslationY());
+			} else {
+				restoreHiddenState = true;
+			}
+			needHideBottomNavigation = false;
 			state = bundle.getParcelable("superState");
 		}
 		super.onRestoreInstanceState(state);
@@ -156,6 +555,7 @@ public class AHBottomNavigation extends FrameLayout {
 	private void init(Context context, AttributeSet attrs) {
 		this.context = context;
 		resources = this.context.getResources();
+		touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
 
 		if (attrs != null) {
 			TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.AHBottomNavigationBehavior_Params, 0, 0);
@@ -168,14 +568,23 @@ public class AHBottomNavigation extends FrameLayout {
 		}
 
 		// Item colors
-		titleColorActive = ContextCompat.getColor(context, R.color.colorBottomNavigationAccent);
-		titleColorInactive = ContextCompat.getColor(context, R.color.colorBottomNavigationInactive);
+		navigationState.setTitleColors(ContextCompat.getColor(context, R.color.colorBottomNavigationAccent),
+				ContextCompat.getColor(context, R.color.colorBottomNavigationInactive));
 		// Colors for colored bottom navigation
-		coloredTitleColorActive = ContextCompat.getColor(context, R.color.colorBottomNavigationActiveColored);
-		coloredTitleColorInactive = ContextCompat.getColor(context, R.color.colorBottomNavigationInactiveColored);
-
-		itemActiveColor = titleColorActive;
-		itemInactiveColor = titleColorInactive;
+		navigationState.setColoredTitleColors(ContextCompat.getColor(context, R.color.colorBottomNavigationActiveColored),
+				ContextCompat.getColor(context, R.color.colorBottomNavigationInactiveColored));
+		// Title sizes used when no size is set
+		navigationState.setDefaultTitleTextSizes(resources.getDimension(R.dimen.bottom_navigation_text_size_forced_active),
+				resources.getDimension(R.dimen.bottom_navigation_text_size_forced_inactive));
+		// Item widths
+		navigationState.setItemWidthBounds(resources.getDimension(R.dimen.bottom_navigation_min_width),
+				resources.getDimension(R.dimen.bottom_navigation_scrollable_min_width),
+				resources.getDimension(R.dimen.bottom_navigation_max_width));
+
+		// Notifications
+		notificationRenderer = new AHNotificationRenderer(resources);
+		notificationTextColor = Color.WHITE;
+		notificationBackgroundColor = ContextCompat.getColor(context, R.color.colorBottomNavigationNotification);
 
 		ViewCompat.setElevation(this, resources.getDimension(R.dimen.bottom_navigation_elevation));
 		setClipToPadding(false);
@@ -183,44 +592,99 @@ public class AHBottomNavigation extends FrameLayout {
 		ViewGroup.LayoutParams params = new ViewGroup.LayoutParams(
 				ViewGroup.LayoutParams.MATCH_PARENT, bottomNavigationHeight);
 		setLayoutParams(params);
+
+		ViewCompat.setOnApplyWindowInsetsListener(this, new OnApplyWindowInsetsListener() {
+			@Override
+			public WindowInsetsCompat onApplyWindowInsets(View v, WindowInsetsCompat insets) {
+				applyWindowInsets(insets);
+				return insets;
+			}
+		});
 	}
 
 	/**
-	 * Create the items in the bottom navigation
+	 * Apply the window insets, ignored while the keyboard is visible: with adjustResize the
+	 * bottom inset is the height of the keyboard, not the navigation bar
+	 *
+	 * @param insets WindowInsetsCompat
 	 */
-	private void createItems() {
-		if (items.size() > MAX_ITEMS) {
-			Log.w(TAG, "The items list should not have more than 5 items");
+	void applyWindowInsets(WindowInsetsCompat insets) {
+		int bottomInset = insets.getSystemWindowInsetBottom();
+		if (bottomInset > AHHelper.getNavigationBarSystemHeight(context)) {
+			return;
+		}
+		applyBottomInset(bottomInset);
+	}
+
+	/**
+	 * Apply the bottom window inset (navigation bar) as bottom padding when the translucent
+	 * navigation is enabled, the items are not rebuilt
+	 *
+	 * @param bottomInset int: Bottom inset of the navigation bar
+	 */
+	private void applyBottomInset(int bottomInset) {
+		if (bottomInset > 0) {
+			AHHelper.setSoftButtonsBarSize(context, bottomInset);
 		}
+		int inset = translucentNavigationEnabled ? bottomInset : 0;
+		if (inset != navigationBarInset || getPaddingBottom() != inset) {
+			navigationBarInset = inset;
+			setPadding(getPaddingLeft(), getPaddingTop(), getPaddingRight(), inset);
+		}
+	}
 
-		int layoutHeight = getNavigationBarHeight();
+	/**
+	 * Create the items in the bottom navigation
+	 */
+	private void createItems() {
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigation#createItems");
+		try {
+			if (stats != null) {
+				stats.itemsRebuilds++;
+			}
+			navigationState.setItemColors(getItemColors());
+			updateRenderedItems();
+			commitNotificationCounts();
+
+			int layoutHeight = getNavigationBarHeight();
+
+			removeAllViews();
+			views.clear();
+			backgroundColorView = new View(context);
+			backgroundColorView.setBackgroundColor(Color.WHITE);
+			LayoutParams backgroundLayoutParams = new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, layoutHeight);
+			backgroundLayoutParams.gravity = Gravity.BOTTOM;
+			addView(backgroundColorView, backgroundLayoutParams);
+			bottomNavigationHeight = layoutHeight;
+
+			if (scrollable && items.size() > MAX_ITEMS) {
+				linearLayoutContainer = null;
+				createScrollableItems(layoutHeight);
+				return;
+			}
+			scrollableContainer = null;
+			scrollableAdapter = null;
 
-		removeAllViews();
-		views.clear();
-		backgroundColorView = new View(context);
-		backgroundColorView.setBackgroundColor(Color.WHITE);
-		LayoutParams backgroundLayoutParams = new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, layoutHeight);
-		backgroundLayoutParams.gravity = Gravity.BOTTOM;
-		addView(backgroundColorView, backgroundLayoutParams);
-		bottomNavigationHeight = layoutHeight;
-		
-		linearLayoutContainer = new LinearLayout(context);
-		linearLayoutContainer.setOrientation(LinearLayout.HORIZONTAL);
-		linearLayoutContainer.setGravity(Gravity.CENTER);
+			linearLayoutContainer = new LinearLayout(context);
+			linearLayoutContainer.setOrientation(LinearLayout.HORIZONTAL);
+			linearLayoutContainer.setGravity(Gravity.CENTER);
 
-		createClassicItems(linearLayoutContainer);
+			createClassicItems(linearLayoutContainer);
 
-		LayoutParams layoutParams = new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, layoutHeight);
-		layoutParams.gravity = Gravity.BOTTOM;
-		addView(linearLayoutContainer, layoutParams);
+			LayoutParams layoutParams = new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, layoutHeight);
+			layoutParams.gravity = Gravity.BOTTOM;
+			addView(linearLayoutContainer, layoutParams);
 
-		// Force a request layout after all the items have been created
-		post(new Runnable() {
-			@Override
-			public void run() {
-				requestLayout();
-			}
-		});
+			// Force a request layout after all the items have been created
+			post(new Runnable() {
+				@Override
+				public void run() {
+					requestLayout();
+				}
+			});
+		} finally {
+			AHHelper.endTraceSection(traced);
+		}
 	}
 
 	// updated
@@ -231,180 +695,616 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @param linearLayout The layout where the items are added
 	 */
 	private void createClassicItems(LinearLayout linearLayout) {
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigation#createClassicItems");
+		try {
+			LayoutInflater inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+
+			float height = getNavigationBarHeight();
+			int layoutWidth = getWidth();
+			if (layoutWidth == 0 || items.size() == 0) {
+				return;
+			}
 
-		LayoutInflater inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+			float itemWidth = navigationState.getItemWidth(layoutWidth);
 
-		float height = getNavigationBarHeight();
-		float minWidth = resources.getDimension(R.dimen.bottom_navigation_min_width);
-		float maxWidth = resources.getDimension(R.dimen.bottom_navigation_max_width);
+			float activeSize = navigationState.getActiveTitleTextSize();
+			float inactiveSize = navigationState.getInactiveTitleTextSize();
 
-		int layoutWidth = getWidth();
-		if (layoutWidth == 0 || items.size() == 0) {
-			return;
+			linearLayoutContainer.setBackgroundColor(Color.TRANSPARENT);
+
+			int leni = items.size();
+			for (int i = 0; i < leni; i++) {
+				View view = inflater.inflate(R.layout.bottom_navigation_item, this, false);
+				if (stats != null) {
+					stats.itemInflations++;
+				}
+				bindItemView(view, i, activeSize, inactiveSize);
+
+				LayoutParams params = new LayoutParams((int) itemWidth, (int) height);
+				linearLayout.addView(view, params);
+				views.add(view);
+			}
+		} finally {
+			AHHelper.endTraceSection(traced);
 		}
+	}
+
+	/**
+	 * Create scrollable items (more than MAX_ITEMS items)
+	 * Only the visible items and one item ahead in the scroll direction are bound, the views are recycled
+	 *
+	 * @param layoutHeight int: Height of the items
+	 */
+	private void createScrollableItems(int layoutHeight) {
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigation#createScrollableItems");
+		try {
+			scrollableContainer = null;
+			scrollableAdapter = null;
+			int layoutWidth = getWidth();
+			if (layoutWidth == 0) {
+				return;
+			}
 
-		float itemWidth = layoutWidth / items.size();
-		if (itemWidth < minWidth) {
-			itemWidth = minWidth;
-		} else if (itemWidth > maxWidth) {
-			itemWidth = maxWidth;
+			// Half of an item stays visible at the end to show that the items can be scrolled
+			scrollableItemWidth = navigationState.getScrollableItemWidth(layoutWidth);
+
+			// LinearLayoutManager only lays out the extra space in the scroll direction (one item ahead),
+			// calculateExtraLayoutSpace (both sides) does not exist in this version of RecyclerView
+			final int extraLayoutSpace = scrollableItemWidth;
+			LinearLayoutManager layoutManager = new LinearLayoutManager(context, LinearLayoutManager.HORIZONTAL, false) {
+				@Override
+				protected int getExtraLayoutSpace(RecyclerView.State state) {
+					return extraLayoutSpace;
+				}
+			};
+
+			scrollableContainer = new RecyclerView(context);
+			scrollableContainer.setLayoutManager(layoutManager);
+			scrollableContainer.setItemAnimator(null);
+			scrollableContainer.setHasFixedSize(true);
+			scrollableContainer.setOverScrollMode(OVER_SCROLL_NEVER);
+			scrollableContainer.setHorizontalScrollBarEnabled(false);
+			scrollableContainer.addOnScrollListener(new RecyclerView.OnScrollListener() {
+				@Override
+				public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+					// The notifications are drawn by the bottom navigation and have to follow the items
+					if (!notifications.isEmpty()) {
+						invalidate();
+					}
+				}
+			});
+			scrollableAdapter = new ScrollableItemsAdapter();
+			scrollableContainer.setAdapter(scrollableAdapter);
+			if (navigationState.getCurrentItem() >= 0 && navigationState.getCurrentItem() < items.size()) {
+				layoutManager.scrollToPosition(navigationState.getCurrentItem());
+			}
+
+			LayoutParams layoutParams = new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, layoutHeight);
+			layoutParams.gravity = Gravity.BOTTOM;
+			addView(scrollableContainer, layoutParams);
+		} finally {
+			AHHelper.endTraceSection(traced);
 		}
+	}
 
-		float activeSize = resources.getDimension(R.dimen.bottom_navigation_text_size_forced_active);
-		float inactiveSize = resources.getDimension(R.dimen.bottom_navigation_text_size_forced_inactive);
+	/**
+	 * Bind an item to its view (title, icon and colors)
+	 *
+	 * @param view         View inflated from R.layout.bottom_navigation_item
+	 * @param itemIndex    int: Item position
+	 * @param activeSize   float: Title text size when the item is selected
+	 * @param inactiveSize float: Title text size when the item is not selected
+	 */
+	private void bindItemView(View view, int itemIndex, float activeSize, float inactiveSize) {
+		final boolean current = navigationState.getCurrentItem() == itemIndex;
+		AHBottomNavigationItem item = items.get(itemIndex);
+
+		ImageView icon = (ImageView) view.findViewById(R.id.bottom_navigation_item_icon);
+		TextView title = (TextView) view.findViewById(R.id.bottom_navigation_item_title);
+
+		boolean hasTitle = !item.getTitle(context).equals("");
+		if (hasTitle) {
+			title.setText(item.getTitle(context));
+		} else {
+			title.setText("");
+			title.setTextSize(3);
+		}
 
-		if (titleActiveTextSize != 0 && titleInactiveTextSize != 0) {
-			activeSize = titleActiveTextSize;
-			inactiveSize = titleInactiveTextSize;
+		if (titleTypeface != null) {
+			title.setTypeface(titleTypeface);
 		}
 
-		int leni = items.size();
-		for (int i = 0; i < leni; i++) {
-			final boolean current = currentItem == i;
-			final int itemIndex = i;
-			AHBottomNavigationItem item = items.get(itemIndex);
+		view.setSelected(selectedBackgroundVisible && current && hasTitle);
+		icon.setSelected(current && hasTitle);
 
-			View view = inflater.inflate(R.layout.bottom_navigation_item, this, false);
-			ImageView icon = (ImageView) view.findViewById(R.id.bottom_navigation_item_icon);
-			TextView title = (TextView) view.findViewById(R.id.bottom_navigation_item_title);
+		icon.setImageDrawable(AHHelper.getTintDrawable(item.getDrawable(context),
+				current && hasTitle ? navigationState.getItemActiveColor() : navigationState.getItemInactiveColor(), forceTint));
 
-			icon.setImageDrawable(item.getDrawable(context));
+		if (hasTitle) {
+			title.setTextColor(navigationState.getTitleColor(itemIndex));
+			title.setTextSize(TypedValue.COMPLEX_UNIT_PX, current ? activeSize : inactiveSize);
+		}
+		view.setOnClickListener(itemClickListener);
+		view.setSoundEffectsEnabled(soundEffectsEnabled);
+	}
 
-			boolean hasTitle = !item.getTitle(context).equals("");
-			if (hasTitle) {
-				title.setText(item.getTitle(context));
-			} else {
-				title.setTextSize(3);
+	/**
+	 * Update Items UI
+	 *
+	 * @param itemIndex   int: Selected item position
+	 * @param useCallback boolean: Use or not the callback
+	 */
+	private void updateItems(final int itemIndex, boolean useCallback) {
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigation#updateItems");
+		try {
+			if (navigationState.getCurrentItem() == itemIndex) {
+				lastTouchUpTime = 0;
+				if (useCallback) {
+					dispatchTabSelected(itemIndex, true);
+					dispatchTabReselected(itemIndex);
+				}
+				return;
 			}
 
-			if (titleTypeface != null) {
-				title.setTypeface(titleTypeface);
+			if (useCallback) {
+				long selectionTime = SystemClock.uptimeMillis();
+				long tapTime = lastTouchUpTime != 0 ? lastTouchUpTime : selectionTime;
+				lastTouchUpTime = 0;
+				boolean selectionAllowed;
+				boolean selectionTraced = AHHelper.beginTraceSection("AHBottomNavigation#onTabSelected");
+				try {
+					selectionAllowed = dispatchTabSelected(itemIndex, false);
+				} finally {
+					AHHelper.endTraceSection(selectionTraced);
+				}
+				if (!selectionAllowed) return;
+				if (tabSwitchLatencyListener != null) {
+					removeCallbacks(latencyFrameRunnable);
+					latencyPosition = itemIndex;
+					latencyTapTime = tapTime;
+					latencySelectionTime = selectionTime;
+					latencyContentReadyTime = 0;
+				}
+				if (prewarmScheduler != null) {
+					prewarmScheduler.onTabSelected(itemIndex, items.size());
+				}
 			}
 
-			if (current && hasTitle) {
+			int previousColor = navigationState.getCurrentColor();
+			int changes = navigationState.setCurrentItem(itemIndex);
+			int previousItem = navigationState.getPreviousItem();
+			int itemActiveColor = navigationState.getItemActiveColor();
+			int itemInactiveColor = navigationState.getItemInactiveColor();
+
+			if (scrollableAdapter != null) {
+				renderChanges(changes, previousColor);
+				updateScrollableItems(itemIndex, previousItem);
+				return;
+			}
+
+			float activeSize = navigationState.getActiveTitleTextSize();
+			float inactiveSize = navigationState.getInactiveTitleTextSize();
+
+			for (int i = 0; i < views.size(); i++) {
+
+				final View view = views.get(i);
 				if (selectedBackgroundVisible) {
-					view.setSelected(true);
+					view.setSelected(i == itemIndex);
 				}
-				icon.setSelected(true);
-			} else {
-				icon.setSelected(false);
-			}
 
-			linearLayoutContainer.setBackgroundColor(Color.TRANSPARENT);
+				if (i == itemIndex) {
 
-			icon.setImageDrawable(AHHelper.getTintDrawable(items.get(i).getDrawable(context),
-					current && hasTitle ? itemActiveColor : itemInactiveColor, forceTint));
+					final TextView title = (TextView) view.findViewById(R.id.bottom_navigation_item_title);
+					final boolean hasTitle = !title.getText().equals("");
+					final ImageView icon = (ImageView) view.findViewById(R.id.bottom_navigation_item_icon);
 
-			if (hasTitle) {
-				title.setTextColor(current ? itemActiveColor : itemInactiveColor);
-				title.setTextSize(TypedValue.COMPLEX_UNIT_PX, current ? activeSize : inactiveSize);
-			}
-			view.setOnClickListener(new OnClickListener() {
-				@Override
-				public void onClick(View v) {
-					updateItems(itemIndex, true);
+					if (hasTitle)
+					{
+						icon.setSelected(true);
+						AHHelper.updateTextColor(title, itemInactiveColor, itemActiveColor);
+						AHHelper.updateTextSize(title, inactiveSize, activeSize);
+						AHHelper.updateDrawableColor(context, items.get(itemIndex).getDrawable(context), icon,
+								itemInactiveColor, itemActiveColor, forceTint);
+					}
+
+					if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && navigationState.isColored()) {
+
+						int finalRadius = Math.max(getWidth(), getHeight());
+						int cx = (int) view.getX() + view.getWidth() / 2;
+						int cy = view.getHeight() / 2;
+
+						if (circleRevealAnim != null && circleRevealAnim.isRunning()) {
+							circleRevealAnim.cancel();
+						}
+
+						circleRevealAnim = AHHelper.countAnimator(
+								ViewAnimationUtils.createCircularReveal(backgroundColorView, cx, cy, 0, finalRadius));
+						circleRevealAnim.setStartDelay(5);
+						circleRevealAnim.start();
+					} else {
+						renderChanges(changes, previousColor);
+					}
+
+				} else if (i == previousItem) {
+
+					final TextView title = (TextView) view.findViewById(R.id.bottom_navigation_item_title);
+					final boolean hasTitle = !title.getText().equals("");
+					final ImageView icon = (ImageView) view.findViewById(R.id.bottom_navigation_item_icon);
+
+					if (hasTitle)
+					{
+						icon.setSelected(false);
+						AHHelper.updateTextColor(title, itemActiveColor, itemInactiveColor);
+						AHHelper.updateTextSize(title, activeSize, inactiveSize);
+						AHHelper.updateDrawableColor(context, items.get(previousItem).getDrawable(context), icon,
+								itemActiveColor, itemInactiveColor, forceTint);
+					}
 				}
-			});
-			view.setSoundEffectsEnabled(soundEffectsEnabled);
+			}
+		} finally {
+			AHHelper.endTraceSection(traced);
+		}
+	}
 
-			LayoutParams params = new LayoutParams((int) itemWidth, (int) height);
-			linearLayout.addView(view, params);
-			views.add(view);
+	/**
+	 * Dispatch the tab selection to all the OnTabSelectedListener
+	 *
+	 * @param position    int: Position of the selected tab
+	 * @param wasSelected boolean: true if the tab was already selected
+	 * @return boolean: false if a listener refused the selection
+	 */
+	private boolean dispatchTabSelected(int position, boolean wasSelected) {
+		OnTabSelectedListener[] listeners = tabSelectedListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			if (!listeners[i].onTabSelected(position, wasSelected)) {
+				// The next listeners are not called for a refused selection
+				return false;
+			}
 		}
+		return true;
 	}
 
 	/**
-	 * Update Items UI
+	 * Dispatch the tab reselection to all the OnTabReselectedListener
 	 *
-	 * @param itemIndex   int: Selected item position
-	 * @param useCallback boolean: Use or not the callback
+	 * @param position int: Position of the reselected tab
 	 */
-	private void updateItems(final int itemIndex, boolean useCallback) {
+	private void dispatchTabReselected(int position) {
+		OnTabReselectedListener[] listeners = tabReselectedListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onTabReselected(position);
+		}
+	}
 
-		if (currentItem == itemIndex) {
-			if (tabSelectedListener != null && useCallback) {
-				tabSelectedListener.onTabSelected(itemIndex, true);
-			}
+	/**
+	 * Attach or detach the position dispatcher to the behavior
+	 */
+	private void updateNavigationPositionDispatcher() {
+		if (bottomNavigationBehavior == null) {
 			return;
 		}
+		if (navigationPositionListeners.length > 0) {
+			bottomNavigationBehavior.setOnNavigationPositionListener(navigationPositionDispatcher);
+		} else {
+			bottomNavigationBehavior.removeOnNavigationPositionListener();
+		}
+	}
 
-		if (tabSelectedListener != null && useCallback) {
-			boolean selectionAllowed = tabSelectedListener.onTabSelected(itemIndex, false);
-			if (!selectionAllowed) return;
+	/**
+	 * Update the selected item in scrollable mode, only the two changed items are bound again
+	 *
+	 * @param itemIndex    int: Selected item position
+	 * @param previousItem int: Item selected before
+	 */
+	private void updateScrollableItems(int itemIndex, int previousItem) {
+		if (previousItem >= 0 && previousItem < items.size()) {
+			scrollableAdapter.notifyItemChanged(previousItem);
 		}
+		scrollableAdapter.notifyItemChanged(itemIndex);
+		scrollableContainer.smoothScrollToPosition(itemIndex);
+	}
 
-		float activeSize = resources.getDimension(R.dimen.bottom_navigation_text_size_forced_active);
-		float inactiveSize = resources.getDimension(R.dimen.bottom_navigation_text_size_forced_inactive);
+	/**
+	 * Return the view of the item at the given position
+	 * In scrollable mode, only the bound items have a view
+	 *
+	 * @param position int: Item position
+	 * @return The view, or null
+	 */
+	private View getItemView(int position) {
+		if (scrollableContainer != null) {
+			return scrollableContainer.getLayoutManager().findViewByPosition(position);
+		}
+		return position >= 0 && position < views.size() ? views.get(position) : null;
+	}
 
-		if (titleActiveTextSize != 0 && titleInactiveTextSize != 0) {
-			activeSize = titleActiveTextSize;
-			inactiveSize = titleInactiveTextSize;
+	/**
+	 * Return the position of the item under the given point (in the bottom navigation coordinates)
+	 *
+	 * @return The position, or CURRENT_ITEM_NONE
+	 */
+	private int getItemPositionAt(float x, float y) {
+		ViewGroup container = getItemsContainer();
+		if (container == null || y < container.getTop() || y >= container.getBottom()) {
+			return CURRENT_ITEM_NONE;
+		}
+		float localX = x - container.getLeft();
+		if (scrollableContainer == null) {
+			return findItemAt(localX);
 		}
+		// Scrollable mode: only the bound items have a view
+		for (int i = 0; i < container.getChildCount(); i++) {
+			View child = container.getChildAt(i);
+			if (localX >= child.getLeft() && localX < child.getRight()) {
+				return scrollableContainer.getChildAdapterPosition(child);
+			}
+		}
+		return CURRENT_ITEM_NONE;
+	}
 
-		for (int i = 0; i < views.size(); i++) {
+	/**
+	 * Return the layout containing the item views
+	 */
+	private ViewGroup getItemsContainer() {
+		return scrollableContainer != null ? scrollableContainer : linearLayoutContainer;
+	}
 
-			final View view = views.get(i);
-			if (selectedBackgroundVisible) {
-				view.setSelected(i == itemIndex);
-			}
+	/**
+	 * Return if the item at the given position has been laid out
+	 */
+	private boolean hasItemBounds(int position) {
+		View view = getItemView(position);
+		return getItemsContainer() != null && view != null && view.getWidth() > 0;
+	}
 
-			if (i == itemIndex) {
+	private float getItemCenterX(View view) {
+		return getItemsContainer().getLeft() + view.getLeft() + view.getWidth() / 2f;
+	}
 
-				final TextView title = (TextView) view.findViewById(R.id.bottom_navigation_item_title);
-				final boolean hasTitle = !title.getText().equals("");
-				final ImageView icon = (ImageView) view.findViewById(R.id.bottom_navigation_item_icon);
+	private float getItemTop(View view) {
+		return getItemsContainer().getTop() + view.getTop();
+	}
 
-				if (hasTitle)
-				{
-					icon.setSelected(true);
-					AHHelper.updateTextColor(title, itemInactiveColor, itemActiveColor);
-					AHHelper.updateTextSize(title, inactiveSize, activeSize);
-					AHHelper.updateDrawableColor(context, items.get(itemIndex).getDrawable(context), icon,
-							itemInactiveColor, itemActiveColor, forceTint);
-				}
+	/**
+	 * Invalidate only the area of the notification of the given item
+	 *
+	 * @param position int: Item position
+	 * @param oldText  String: Text drawn before the update (can be null)
+	 * @param newText  String: Text drawn after the update (can be null)
+	 */
+	private void invalidateNotification(int position, String oldText, String newText) {
+		if (!hasItemBounds(position)) {
+			return;
+		}
+		View view = getItemView(position);
+		float centerX = getItemCenterX(view);
+		float top = getItemTop(view);
+		if (oldText == null && newText == null) {
+			return;
+		}
+		// The badge grows to the right, the widest of both texts gives the dirty area
+		notificationRenderer.getBounds(newText != null ? newText : oldText, centerX, top, notificationBounds);
+		if (oldText != null && newText != null) {
+			int right = (int) Math.ceil(notificationBounds.left + notificationRenderer.getWidth(oldText));
+			notificationBounds.right = Math.max(notificationBounds.right, right);
+		}
+		invalidate(notificationBounds);
+	}
 
-				if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && colored) {
+	/**
+	 * Validate the items, called once before each change of the items
+	 * The warning is only logged when the items become invalid, in strict mode an exception is thrown
+	 *
+	 * @param itemsCount int: Number of items after the change
+	 */
+	private void validateItems(int itemsCount) {
+		boolean tooManyItems = itemsCount > MAX_ITEMS && !scrollable;
+		if (tooManyItems && strictMode) {
+			throw new IllegalStateException(WARNING_MAX_ITEMS);
+		}
+		if (tooManyItems && !maxItemsWarned) {
+			Log.w(TAG, WARNING_MAX_ITEMS);
+		}
+		maxItemsWarned = tooManyItems;
+	}
 
-					int finalRadius = Math.max(getWidth(), getHeight());
-					int cx = (int) view.getX() + view.getWidth() / 2;
-					int cy = view.getHeight() / 2;
+	/**
+	 * Apply the last published items (UI thread)
+	 * When the number of items is the same, only the views of the changed items are bound again
+	 */
+	private void applyPendingItems() {
+		List<AHBottomNavigationItem> newItems = pendingItems.getAndSet(null);
+		if (newItems == null) {
+			return;
+		}
+		if (newItems.size() != items.size()) {
+			setItems(newItems);
+			return;
+		}
+		if (scrollableAdapter == null && views.size() != items.size()) {
+			setItems(newItems);
+			return;
+		}
 
-					if (circleRevealAnim != null && circleRevealAnim.isRunning()) {
-						circleRevealAnim.cancel();
-					}
+		int previousColor = navigationState.getCurrentColor();
+		for (int i = 0; i < newItems.size(); i++) {
+			RenderedItem renderedItem = new RenderedItem(context, newItems.get(i));
+			items.set(i, newItems.get(i));
+			if (renderedItem.equals(renderedItems.get(i))) {
+				continue;
+			}
+			renderedItems.set(i, renderedItem);
+			if (scrollableAdapter != null) {
+				scrollableAdapter.notifyItemChanged(i);
+			} else {
+				bindItemView(views.get(i), i, navigationState.getActiveTitleTextSize(),
+						navigationState.getInactiveTitleTextSize());
+			}
+		}
+		renderChanges(navigationState.setItemColors(getItemColors()), previousColor);
+	}
 
-					circleRevealAnim = ViewAnimationUtils.createCircularReveal(backgroundColorView, cx, cy, 0, finalRadius);
-					circleRevealAnim.setStartDelay(5);
-					circleRevealAnim.start();
-				} else if (colored) {
-					AHHelper.updateViewBackgroundColor(this, currentColor,
-							items.get(itemIndex).getColor(context));
-				}
+	/**
+	 * Render the changes returned by the navigation state
+	 * The item views are bound again, they are not rebuilt: the new items are rendered by setItems
+	 * and the selection animations by updateItems (CHANGE_ITEMS and CHANGE_CURRENT_ITEM are ignored)
+	 *
+	 * @param changes       int: AHBottomNavigationState.CHANGE_* flags
+	 * @param previousColor int: Color of the current item before the changes
+	 */
+	private void renderChanges(int changes, int previousColor) {
+		if ((changes & (AHBottomNavigationState.CHANGE_COLORED | AHBottomNavigationState.CHANGE_TITLE_COLORS
+				| AHBottomNavigationState.CHANGE_TITLE_SIZES)) != 0) {
+			bindItemViews();
+		}
+		if ((changes & AHBottomNavigationState.CHANGE_CURRENT_COLOR) != 0 && navigationState.isColored()) {
+			AHHelper.updateViewBackgroundColor(this, previousColor, navigationState.getCurrentColor());
+		}
+	}
+
+	/**
+	 * Bind all the item views again (title, icon and colors)
+	 */
+	private void bindItemViews() {
+		if (scrollableAdapter != null) {
+			scrollableAdapter.notifyItemRangeChanged(0, items.size());
+			return;
+		}
+		float activeSize = navigationState.getActiveTitleTextSize();
+		float inactiveSize = navigationState.getInactiveTitleTextSize();
+		for (int i = 0; i < views.size() && i < items.size(); i++) {
+			bindItemView(views.get(i), i, activeSize, inactiveSize);
+		}
+	}
+
+	/**
+	 * Record the rendered fields of all the items
+	 */
+	private void updateRenderedItems() {
+		renderedItems.clear();
+		for (int i = 0; i < items.size(); i++) {
+			renderedItems.add(new RenderedItem(context, items.get(i)));
+		}
+	}
 
-			} else if (i == currentItem) {
+	/**
+	 * Return the colors of the items
+	 */
+	private int[] getItemColors() {
+		int[] colors = new int[items.size()];
+		for (int i = 0; i < colors.length; i++) {
+			colors[i] = items.get(i).getColor(context);
+		}
+		return colors;
+	}
 
-				final TextView title = (TextView) view.findViewById(R.id.bottom_navigation_item_title);
-				final boolean hasTitle = !title.getText().equals("");
-				final ImageView icon = (ImageView) view.findViewById(R.id.bottom_navigation_item_icon);
+	private static int[] newNotificationCounts(int size) {
+		int[] counts = new int[size];
+		Arrays.fill(counts, NOTIFICATION_COUNT_NONE);
+		return counts;
+	}
 
-				if (hasTitle)
-				{
-					icon.setSelected(false);
-					AHHelper.updateTextColor(title, itemActiveColor, itemInactiveColor);
-					AHHelper.updateTextSize(title, activeSize, inactiveSize);
-					AHHelper.updateDrawableColor(context, items.get(currentItem).getDrawable(context), icon,
-							itemActiveColor, itemInactiveColor, forceTint);
+	private static AtomicIntegerArray newPendingNotificationCounts(int size) {
+		AtomicIntegerArray counts = new AtomicIntegerArray(size);
+		for (int i = 0; i < size; i++) {
+			counts.set(i, NOTIFICATION_COUNT_NONE);
+		}
+		return counts;
+	}
+
+	/**
+	 * Return a copy of the counts with at least the given size
+	 */
+	private static int[] growNotificationCounts(int[] counts, int size) {
+		if (size <= counts.length) {
+			return counts;
+		}
+		int[] newCounts = Arrays.copyOf(counts, size);
+		Arrays.fill(newCounts, counts.length, size, NOTIFICATION_COUNT_NONE);
+		return newCounts;
+	}
+
+	/**
+	 * Remove the count of an item, the next counts are shifted
+	 */
+	private static void removeNotificationCount(int[] counts, int index) {
+		if (index < counts.length) {
+			System.arraycopy(counts, index + 1, counts, index, counts.length - index - 1);
+			counts[counts.length - 1] = NOTIFICATION_COUNT_NONE;
+		}
+	}
+
+	/**
+	 * Store a pending count, the array is replaced by a larger copy if needed (any thread, no lock)
+	 * The count is written again if the array was replaced concurrently
+	 */
+	private void setPendingNotificationCount(int itemPosition, int count) {
+		while (true) {
+			AtomicIntegerArray counts = pendingNotificationCounts.get();
+			if (itemPosition >= counts.length()) {
+				AtomicIntegerArray newCounts = newPendingNotificationCounts(itemPosition + 1);
+				for (int i = 0; i < counts.length(); i++) {
+					newCounts.set(i, counts.get(i));
+				}
+				if (!pendingNotificationCounts.compareAndSet(counts, newCounts)) {
+					continue;
 				}
+				counts = newCounts;
+			}
+			counts.set(itemPosition, count);
+			if (pendingNotificationCounts.get() == counts) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Remove the pending count of an item, the next counts are shifted
+	 */
+	private void removePendingNotificationCount(int index) {
+		AtomicIntegerArray counts = pendingNotificationCounts.get();
+		AtomicIntegerArray newCounts = newPendingNotificationCounts(counts.length());
+		for (int i = 0, j = 0; i < counts.length(); i++) {
+			if (i != index) {
+				newCounts.set(j++, counts.get(i));
+			}
+		}
+		pendingNotificationCounts.set(newCounts);
+	}
+
+	/**
+	 * Apply the pending notification counts (UI thread, once for all the counts set before it runs)
+	 */
+	private void commitNotificationCounts() {
+		notificationCommitScheduled.set(false);
+		AtomicIntegerArray counts = pendingNotificationCounts.get();
+		int size = Math.min(counts.length(), items.size());
+		committedNotificationCounts = growNotificationCounts(committedNotificationCounts, size);
+		for (int i = 0; i < size; i++) {
+			int count = counts.get(i);
+			if (count == committedNotificationCounts[i]) {
+				continue;
 			}
+			committedNotificationCounts[i] = count;
+			applyNotification(count > 0 ? getCountNotification(count) : null, i);
 		}
+	}
 
-		currentItem = itemIndex;
-		if (currentItem > 0 && currentItem < items.size()) {
-			currentColor = items.get(currentItem).getColor(context);
+	/**
+	 * Return the notification displaying the given count (cached)
+	 */
+	private AHNotification getCountNotification(int count) {
+		int index = Math.min(count, NOTIFICATION_COUNT_MAX + 1);
+		AHNotification notification = countNotifications[index];
+		if (notification == null) {
+			notification = AHNotification.justText(count > NOTIFICATION_COUNT_MAX ?
+					NOTIFICATION_COUNT_MAX + "+" : String.valueOf(count));
+			countNotifications[index] = notification;
 		}
+		return notification;
 	}
 
-////////////
+	////////////
 	// PUBLIC //
 	////////////
 
@@ -412,10 +1312,9 @@ public class AHBottomNavigation extends FrameLayout {
 	 * Add an item
 	 */
 	public void addItem(AHBottomNavigationItem item) {
-		if (this.items.size() > MAX_ITEMS) {
-			Log.w(TAG, "The items list should not have more than 5 items");
-		}
+		validateItems(items.size() + 1);
 		items.add(item);
+		itemsCount = items.size();
 		createItems();
 	}
 
@@ -423,19 +1322,62 @@ public class AHBottomNavigation extends FrameLayout {
 	 * Add all items
 	 */
 	public void addItems(List<AHBottomNavigationItem> items) {
-		if (items.size() > MAX_ITEMS || (this.items.size() + items.size()) > MAX_ITEMS) {
-			Log.w(TAG, "The items list should not have more than 5 items");
-		}
+		validateItems(this.items.size() + items.size());
+		this.items.addAll(items);
+		itemsCount = this.items.size();
+		createItems();
+	}
+
+	/**
+	 * Replace all the items, the view is rebuilt only once
+	 * The notifications of the previous items are removed
+	 */
+	public void setItems(List<AHBottomNavigationItem> items) {
+		validateItems(items.size());
+		this.items.clear();
 		this.items.addAll(items);
+		itemsCount = this.items.size();
+		clearNotifications();
 		createItems();
 	}
 
+	/**
+	 * Replace all the items with the items of a menu (parsed or generated at build time)
+	 *
+	 * @param menu   AHBottomNavigationMenu
+	 * @param colors Colors of the items (can be null)
+	 */
+	public void setItems(AHBottomNavigationMenu menu, @ColorInt int[] colors) {
+		setItems(menu.createItems(context, colors));
+	}
+
+	/**
+	 * Publish a new list of items, can be called from any thread
+	 * An immutable snapshot of the list is swapped atomically and applied on the UI thread, also
+	 * while the view is detached, only the last published list is applied
+	 *
+	 * @param items List of items
+	 */
+	public void publishItems(List<AHBottomNavigationItem> items) {
+		List<AHBottomNavigationItem> snapshot = Collections.unmodifiableList(new ArrayList<>(items));
+		if (pendingItems.getAndSet(snapshot) == null) {
+			mainHandler.post(applyPendingItemsRunnable);
+		}
+	}
+
 	/**
 	 * Remove an item at the given index
 	 */
 	public void removeItemAtIndex(int index) {
 		if (index < items.size()) {
+			validateItems(items.size() - 1);
 			this.items.remove(index);
+			itemsCount = items.size();
+			if (index < notifications.size()) {
+				notifications.remove(index);
+			}
+			removePendingNotificationCount(index);
+			removeNotificationCount(committedNotificationCounts, index);
 			createItems();
 		}
 	}
@@ -444,10 +1386,22 @@ public class AHBottomNavigation extends FrameLayout {
 	 * Remove all items
 	 */
 	public void removeAllItems() {
+		validateItems(0);
 		this.items.clear();
+		itemsCount = 0;
+		clearNotifications();
 		createItems();
 	}
 
+	/**
+	 * Remove the notifications and the notification counts of all the items
+	 */
+	private void clearNotifications() {
+		this.notifications.clear();
+		pendingNotificationCounts.set(newPendingNotificationCounts(MAX_ITEMS));
+		Arrays.fill(committedNotificationCounts, NOTIFICATION_COUNT_NONE);
+	}
+
 	/**
 	 * Refresh the AHBottomView
 	 */
@@ -468,17 +1422,15 @@ public class AHBottomNavigation extends FrameLayout {
 	 * Return if the Bottom Navigation is colored
 	 */
 	public boolean isColored() {
-		return colored;
+		return navigationState.isColored();
 	}
 
 	/**
 	 * Set if the Bottom Navigation is colored
 	 */
 	public void setColored(boolean colored) {
-		this.colored = colored;
-		this.itemActiveColor = colored ? coloredTitleColorActive : titleColorActive;
-		this.itemInactiveColor = colored ? coloredTitleColorInactive : titleColorInactive;
-		createItems();
+		int previousColor = navigationState.getCurrentColor();
+		renderChanges(navigationState.setColored(colored), previousColor);
 	}
 
 	/**
@@ -505,7 +1457,7 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @return The default accent color
 	 */
 	public int getAccentColor() {
-		return itemActiveColor;
+		return navigationState.getItemActiveColor();
 	}
 
 	/**
@@ -514,8 +1466,8 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @param accentColor The new accent color
 	 */
 	public void setAccentColor(int accentColor) {
-		this.titleColorActive = accentColor;
-		this.itemActiveColor = accentColor;
+		int previousColor = navigationState.getCurrentColor();
+		renderChanges(navigationState.setAccentColor(accentColor), previousColor);
 	}
 
 	/**
@@ -524,7 +1476,7 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @return The inactive color
 	 */
 	public int getInactiveColor() {
-		return itemInactiveColor;
+		return navigationState.getItemInactiveColor();
 	}
 
 	/**
@@ -533,8 +1485,8 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @param inactiveColor The inactive color
 	 */
 	public void setInactiveColor(int inactiveColor) {
-		this.titleColorInactive = inactiveColor;
-		this.itemInactiveColor = inactiveColor;
+		int previousColor = navigationState.getCurrentColor();
+		renderChanges(navigationState.setInactiveColor(inactiveColor), previousColor);
 	}
 
 	/**
@@ -544,9 +1496,8 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @param colorInactive The inactive color
 	 */
 	public void setColoredModeColors(@ColorInt int colorActive, @ColorInt int colorInactive) {
-		this.coloredTitleColorActive = colorActive;
-		this.coloredTitleColorInactive = colorInactive;
-		createItems();
+		int previousColor = navigationState.getCurrentColor();
+		renderChanges(navigationState.setColoredTitleColors(colorActive, colorInactive), previousColor);
 	}
 
 	/**
@@ -572,8 +1523,8 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @param inactiveSize
 	 */
 	public void setTitleTextSize(float activeSize, float inactiveSize) {
-		this.titleActiveTextSize = activeSize;
-		this.titleInactiveTextSize = inactiveSize;
+		int previousColor = navigationState.getCurrentColor();
+		renderChanges(navigationState.setTitleTextSizes(activeSize, inactiveSize), previousColor);
 	}
 
 	/**
@@ -583,8 +1534,9 @@ public class AHBottomNavigation extends FrameLayout {
 	 +	 * @param inactiveSize in sp
 	 */
 	public void setTitleTextSizeInSp(float activeSize, float inactiveSize) {
-		this.titleActiveTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, activeSize, resources.getDisplayMetrics());
-		this.titleInactiveTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, inactiveSize, resources.getDisplayMetrics());
+		setTitleTextSize(
+				TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, activeSize, resources.getDisplayMetrics()),
+				TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, inactiveSize, resources.getDisplayMetrics()));
 	}
 
 	/**
@@ -610,9 +1562,6 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @return The item at the given position
 	 */
 	public AHBottomNavigationItem getItem(int position) {
-		if (position < 0 || position > items.size() - 1) {
-			Log.w(TAG, "The position is out of bounds of the items (" + items.size() + " elements)");
-		}
 		return items.get(position);
 	}
 
@@ -622,7 +1571,7 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @return The current item position
 	 */
 	public int getCurrentItem() {
-		return currentItem;
+		return navigationState.getCurrentItem();
 	}
 
 	/**
@@ -642,7 +1591,10 @@ public class AHBottomNavigation extends FrameLayout {
 	 */
 	public void setCurrentItem(int position, boolean useCallback) {
 		if (position >= items.size()) {
-			Log.w(TAG, "The position is out of bounds of the items (" + items.size() + " elements)");
+			if (strictMode) {
+				throw new IndexOutOfBoundsException(WARNING_POSITION_OUT_OF_BOUNDS);
+			}
+			Log.w(TAG, WARNING_POSITION_OUT_OF_BOUNDS);
 			return;
 		}
 
@@ -672,13 +1624,17 @@ public class AHBottomNavigation extends FrameLayout {
 			} else {
 				bottomNavigationBehavior.setBehaviorTranslationEnabled(behaviorTranslationEnabled, navigationBarHeight);
 			}
-			if (navigationPositionListener != null) {
-				bottomNavigationBehavior.setOnNavigationPositionListener(navigationPositionListener);
-			}
+			bottomNavigationBehavior.setNavigationPositionFinalOnly(navigationPositionFinalOnly);
+			bottomNavigationBehavior.setAnchoredViews(anchoredViews);
+			updateNavigationPositionDispatcher();
 			((CoordinatorLayout.LayoutParams) params).setBehavior(bottomNavigationBehavior);
+			if (restoreHiddenState) {
+				restoreHiddenState = false;
+				bottomNavigationBehavior.restoreHidden(this, restoredHidden, getTranslationY());
+			}
 			if (needHideBottomNavigation) {
 				needHideBottomNavigation = false;
-				bottomNavigationBehavior.hideView(this, bottomNavigationHeight, hideBottomNavigationWithAnimation);
+				bottomNavigationBehavior.hideView(this, bottomNavigationHeight + navigationBarInset, hideBottomNavigationWithAnimation);
 			}
 		}
 	}
@@ -695,6 +1651,34 @@ public class AHBottomNavigation extends FrameLayout {
 		}
 	}
 
+	/**
+	 * Anchor a view (sibling in the CoordinatorLayout) to the top edge of the bottom navigation
+	 * All the anchored views are moved with a translation when the bottom navigation is hidden or shown
+	 * The views are weakly referenced
+	 *
+	 * @param view View
+	 */
+	public void addAnchoredView(View view) {
+		if (bottomNavigationBehavior != null) {
+			bottomNavigationBehavior.addAnchoredView(view);
+		} else {
+			anchoredViews.add(view);
+		}
+	}
+
+	/**
+	 * Remove an anchored view
+	 *
+	 * @param view View
+	 */
+	public void removeAnchoredView(View view) {
+		if (bottomNavigationBehavior != null) {
+			bottomNavigationBehavior.removeAnchoredView(view);
+		} else {
+			anchoredViews.remove(view);
+		}
+	}
+
 	/**
 	 * Hide Bottom Navigation with animation
 	 */
@@ -708,15 +1692,16 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @param withAnimation Boolean
 	 */
 	public void hideBottomNavigation(boolean withAnimation) {
+		navigationState.setHidden(true);
 		if (bottomNavigationBehavior != null) {
-			bottomNavigationBehavior.hideView(this, bottomNavigationHeight, withAnimation);
+			bottomNavigationBehavior.hideView(this, bottomNavigationHeight + navigationBarInset, withAnimation);
 		} else if (getParent() instanceof CoordinatorLayout) {
 			needHideBottomNavigation = true;
 			hideBottomNavigationWithAnimation = withAnimation;
 		} else {
 			// Hide bottom navigation
 			ViewCompat.animate(this)
-					.translationY(bottomNavigationHeight)
+					.translationY(bottomNavigationHeight + navigationBarInset)
 					.setInterpolator(new LinearOutSlowInInterpolator())
 					.setDuration(withAnimation ? 300 : 0)
 					.start();
@@ -736,6 +1721,7 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @param withAnimation Boolean
 	 */
 	public void restoreBottomNavigation(boolean withAnimation) {
+		navigationState.setHidden(false);
 		if (bottomNavigationBehavior != null) {
 			bottomNavigationBehavior.resetOffset(this, withAnimation);
 		} else {
@@ -748,6 +1734,63 @@ public class AHBottomNavigation extends FrameLayout {
 		}
 	}
 
+	/**
+	 * Set the scrollable mode: with more than 5 items, the items keep a minimum width and can be
+	 * scrolled horizontally, only the visible items have a view
+	 *
+	 * @param scrollable boolean
+	 */
+	public void setScrollable(boolean scrollable) {
+		this.scrollable = scrollable;
+		validateItems(items.size());
+		createItems();
+	}
+
+	/**
+	 * Return if the scrollable mode is enabled
+	 */
+	public boolean isScrollable() {
+		return scrollable;
+	}
+
+	/**
+	 * Enable or disable the layout counters (requestLayout calls, measure passes, items rebuilds,
+	 * item inflations and animators), disabled by default
+	 *
+	 * @param statsEnabled boolean
+	 */
+	public void setStatsEnabled(boolean statsEnabled) {
+		if (statsEnabled && stats == null) {
+			stats = new AHBottomNavigationStats();
+		} else if (!statsEnabled) {
+			stats = null;
+		}
+	}
+
+	/**
+	 * Return the layout counters, or null if they are disabled
+	 */
+	public AHBottomNavigationStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Set the strict mode: invalid items or positions throw an exception instead of logging a warning
+	 *
+	 * @param strictMode boolean
+	 */
+	public void setStrictMode(boolean strictMode) {
+		this.strictMode = strictMode;
+		validateItems(items.size());
+	}
+
+	/**
+	 * Return if the strict mode is enabled
+	 */
+	public boolean isStrictMode() {
+		return strictMode;
+	}
+
 	/**
 	 * Return if the translucent navigation is enabled
 	 */
@@ -759,7 +1802,11 @@ public class AHBottomNavigation extends FrameLayout {
 	 * Set the translucent navigation value
 	 */
 	public void setTranslucentNavigationEnabled(boolean translucentNavigationEnabled) {
+		if (this.translucentNavigationEnabled == translucentNavigationEnabled) {
+			return;
+		}
 		this.translucentNavigationEnabled = translucentNavigationEnabled;
+		ViewCompat.requestApplyInsets(this);
 	}
 
 	/**
@@ -783,25 +1830,93 @@ public class AHBottomNavigation extends FrameLayout {
 
 	/**
 	 * Set AHOnTabSelectedListener
+	 * Replace the listener previously set with this method, the ones added with
+	 * addOnTabSelectedListener are kept
 	 */
 	public void setOnTabSelectedListener(OnTabSelectedListener tabSelectedListener) {
+		removeOnTabSelectedListener();
 		this.tabSelectedListener = tabSelectedListener;
+		if (tabSelectedListener != null) {
+			addOnTabSelectedListener(tabSelectedListener);
+		}
 	}
 
 	/**
 	 * Remove AHOnTabSelectedListener
 	 */
 	public void removeOnTabSelectedListener() {
-		this.tabSelectedListener = null;
+		if (tabSelectedListener != null) {
+			removeOnTabSelectedListener(tabSelectedListener);
+			this.tabSelectedListener = null;
+		}
+	}
+
+	/**
+	 * Add an OnTabSelectedListener
+	 * The listeners are called in the order they were added: the first one returning false refuses
+	 * the selection and the next ones are not called, add the listeners that can refuse first
+	 *
+	 * @param listener OnTabSelectedListener
+	 */
+	public void addOnTabSelectedListener(OnTabSelectedListener listener) {
+		tabSelectedListeners = AHHelper.addListener(tabSelectedListeners, listener);
+	}
+
+	/**
+	 * Remove an OnTabSelectedListener
+	 *
+	 * @param listener OnTabSelectedListener
+	 */
+	public void removeOnTabSelectedListener(OnTabSelectedListener listener) {
+		tabSelectedListeners = AHHelper.removeListener(tabSelectedListeners, listener);
+	}
+
+	/**
+	 * Add an OnTabReselectedListener
+	 *
+	 * @param listener OnTabReselectedListener
+	 */
+	public void addOnTabReselectedListener(OnTabReselectedListener listener) {
+		tabReselectedListeners = AHHelper.addListener(tabReselectedListeners, listener);
+	}
+
+	/**
+	 * Remove an OnTabReselectedListener
+	 *
+	 * @param listener OnTabReselectedListener
+	 */
+	public void removeOnTabReselectedListener(OnTabReselectedListener listener) {
+		tabReselectedListeners = AHHelper.removeListener(tabReselectedListeners, listener);
+	}
+
+	/**
+	 * Add an OnTabPressListener
+	 *
+	 * @param listener OnTabPressListener
+	 */
+	public void addOnTabPressListener(OnTabPressListener listener) {
+		tabPressListeners = AHHelper.addListener(tabPressListeners, listener);
+	}
+
+	/**
+	 * Remove an OnTabPressListener
+	 *
+	 * @param listener OnTabPressListener
+	 */
+	public void removeOnTabPressListener(OnTabPressListener listener) {
+		tabPressListeners = AHHelper.removeListener(tabPressListeners, listener);
 	}
 
 	/**
 	 * Set OnNavigationPositionListener
+	 * Replace the listener previously set with this method, the ones added with
+	 * addOnNavigationPositionListener are kept
 	 */
 	public void setOnNavigationPositionListener(OnNavigationPositionListener navigationPositionListener) {
+		removeOnNavigationPositionListener();
 		this.navigationPositionListener = navigationPositionListener;
-		if (bottomNavigationBehavior != null) {
-			bottomNavigationBehavior.setOnNavigationPositionListener(navigationPositionListener);
+		if (navigationPositionListener != null) {
+			addOnNavigationPositionListener(navigationPositionListener);
 		}
 	}
 
@@ -809,17 +1924,255 @@ public class AHBottomNavigation extends FrameLayout {
 	 * Remove OnNavigationPositionListener()
 	 */
 	public void removeOnNavigationPositionListener() {
-		this.navigationPositionListener = null;
+		if (navigationPositionListener != null) {
+			removeOnNavigationPositionListener(navigationPositionListener);
+			this.navigationPositionListener = null;
+		}
+	}
+
+	/**
+	 * Add an OnNavigationPositionListener
+	 *
+	 * @param listener OnNavigationPositionListener
+	 */
+	public void addOnNavigationPositionListener(OnNavigationPositionListener listener) {
+		navigationPositionListeners = AHHelper.addListener(navigationPositionListeners, listener);
+		updateNavigationPositionDispatcher();
+	}
+
+	/**
+	 * Remove an OnNavigationPositionListener
+	 *
+	 * @param listener OnNavigationPositionListener
+	 */
+	public void removeOnNavigationPositionListener(OnNavigationPositionListener listener) {
+		navigationPositionListeners = AHHelper.removeListener(navigationPositionListeners, listener);
+		updateNavigationPositionDispatcher();
+	}
+
+	/**
+	 * Set OnTabPrewarmListener
+	 * The selections of the tabs are counted in a small file (one per key, read and written in the
+	 * background) and, when the main thread is idle, the listener is called for the most selected
+	 * tabs: one tab per idle slot, stopped by any touch on the bottom navigation or by
+	 * {@link #cancelTabPrewarm()} (call it from Activity.onUserInteraction to stop on any input)
+	 *
+	 * @param key      String: Name of the counts file, stable across launches
+	 *                 (letters, digits, '_' and '-' only)
+	 * @param listener OnTabPrewarmListener, null to disable the prewarming
+	 */
+	public void setOnTabPrewarmListener(String key, OnTabPrewarmListener listener) {
+		if (listener != null && (key == null || !key.matches("[A-Za-z0-9_-]+"))) {
+			throw new IllegalArgumentException("The key " + key + " should only contain letters, digits, '_' and '-'");
+		}
+		removeCallbacks(startPrewarmRunnable);
+		if (prewarmScheduler != null) {
+			prewarmScheduler.stop();
+			prewarmScheduler.flush();
+			prewarmScheduler = null;
+		}
+		if (listener != null) {
+			prewarmScheduler = new AHBottomNavigationPrewarmScheduler(context, key, listener);
+			// Started after the first frame
+			post(startPrewarmRunnable);
+		}
+	}
+
+	/**
+	 * Stop the prewarming of the tabs until the next selection
+	 * (for example from Activity.onUserInteraction)
+	 */
+	public void cancelTabPrewarm() {
+		removeCallbacks(startPrewarmRunnable);
+		if (prewarmScheduler != null) {
+			prewarmScheduler.stop();
+		}
+	}
+
+	/**
+	 * Set OnTabSwitchLatencyListener
+	 * Called with the durations of a tab switch once {@link #markContentReady(int)} has been
+	 * called for the selected tab
+	 *
+	 * @param listener OnTabSwitchLatencyListener
+	 */
+	public void setOnTabSwitchLatencyListener(OnTabSwitchLatencyListener listener) {
+		this.tabSwitchLatencyListener = listener;
+		if (listener == null) {
+			removeCallbacks(latencyFrameRunnable);
+			latencyPosition = CURRENT_ITEM_NONE;
+		}
+	}
+
+	/**
+	 * Mark the content of a tab as ready (data bound, views added)
+	 * Must be called on the main thread, after the selection of the tab
+	 * The latency is measured until the beginning of the next frame
+	 *
+	 * @param position int: Position of the tab
+	 */
+	public void markContentReady(int position) {
+		if (tabSwitchLatencyListener == null || position != latencyPosition || latencyContentReadyTime != 0) {
+			return;
+		}
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigation#markContentReady");
+		latencyContentReadyTime = SystemClock.uptimeMillis();
+		ViewCompat.postOnAnimation(this, latencyFrameRunnable);
+		AHHelper.endTraceSection(traced);
+	}
+
+	private void dispatchTabSwitchLatency() {
+		if (tabSwitchLatencyListener == null || latencyPosition == CURRENT_ITEM_NONE) {
+			return;
+		}
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigation#tabContentFrame");
+		try {
+			int position = latencyPosition;
+			latencyPosition = CURRENT_ITEM_NONE;
+			long frameTime = SystemClock.uptimeMillis();
+			tabSwitchLatencyListener.onTabSwitchLatency(position,
+					latencySelectionTime - latencyTapTime,
+					latencyContentReadyTime - latencySelectionTime,
+					frameTime - latencyContentReadyTime);
+		} finally {
+			AHHelper.endTraceSection(traced);
+		}
+	}
+
+	/**
+	 * Set if the OnNavigationPositionListener should only be called with the final position
+	 * of the hide/show animation (instead of once per frame, in the frame of the bottom navigation)
+	 * The content following the position does not move during the animation
+	 *
+	 * @param finalPositionOnly boolean
+	 */
+	public void setNavigationPositionFinalOnly(boolean finalPositionOnly) {
+		this.navigationPositionFinalOnly = finalPositionOnly;
 		if (bottomNavigationBehavior != null) {
-			bottomNavigationBehavior.removeOnNavigationPositionListener();
+			bottomNavigationBehavior.setNavigationPositionFinalOnly(finalPositionOnly);
 		}
 	}
 
+	/**
+	 * Return if the OnNavigationPositionListener is only called with the final position
+	 */
+	public boolean isNavigationPositionFinalOnly() {
+		return navigationPositionFinalOnly;
+	}
+
 	/**
 	 * Return if the Bottom Navigation is hidden or not
 	 */
 	public boolean isHidden() {
-		return bottomNavigationBehavior.isHidden();
+		return navigationState.isHidden();
+	}
+
+	/**
+	 * Update the hidden state when the behavior hides or shows the bottom navigation (scroll)
+	 *
+	 * @param hidden boolean
+	 */
+	void setHiddenState(boolean hidden) {
+		navigationState.setHidden(hidden);
+	}
+
+	/**
+	 * Set a notification with the default colors for the given item
+	 * An empty or null text removes the notification
+	 *
+	 * @param title        String: Text of the notification
+	 * @param itemPosition int: Item position
+	 */
+	public void setNotification(String title, int itemPosition) {
+		setNotification(AHNotification.justText(title), itemPosition);
+	}
+
+	/**
+	 * Set a notification for the given item
+	 * Only the area of the notification is redrawn, the items are not rebuilt
+	 * The notification replaces the notification count of the item
+	 *
+	 * @param notification AHNotification (null removes the notification)
+	 * @param itemPosition int: Item position
+	 */
+	public void setNotification(AHNotification notification, int itemPosition) {
+		if (itemPosition < 0 || itemPosition > items.size() - 1) {
+			throw new IndexOutOfBoundsException("The position " + itemPosition + " is out of bounds of the items ("
+					+ items.size() + " elements)");
+		}
+		// The next count, even equal to the previous one, is displayed again
+		AtomicIntegerArray counts = pendingNotificationCounts.get();
+		if (itemPosition < counts.length()) {
+			counts.set(itemPosition, NOTIFICATION_COUNT_NONE);
+		}
+		if (itemPosition < committedNotificationCounts.length) {
+			committedNotificationCounts[itemPosition] = NOTIFICATION_COUNT_NONE;
+		}
+		applyNotification(notification, itemPosition);
+	}
+
+	/**
+	 * Display a notification, the position is valid
+	 */
+	private void applyNotification(AHNotification notification, int itemPosition) {
+		while (notifications.size() <= itemPosition) {
+			notifications.add(null);
+		}
+		AHNotification oldNotification = notifications.get(itemPosition);
+		notifications.set(itemPosition, notification);
+		invalidateNotification(itemPosition,
+				oldNotification != null && !oldNotification.isEmpty() ? oldNotification.getText() : null,
+				notification != null && !notification.isEmpty() ? notification.getText() : null);
+	}
+
+	/**
+	 * Set the notification count of the given item
+	 * Can be called from any thread: the counts are stored without lock and committed together on
+	 * the UI thread, a count <= 0 removes the notification
+	 *
+	 * @param count        int: Count displayed in the notification (99+ above 99)
+	 * @param itemPosition int: Item position
+	 */
+	public void setNotificationCount(int count, int itemPosition) {
+		int itemsCount = this.itemsCount;
+		if (itemPosition < 0 || itemPosition >= itemsCount) {
+			throw new IndexOutOfBoundsException("The position " + itemPosition + " is out of bounds of the items ("
+					+ itemsCount + " elements)");
+		}
+		setPendingNotificationCount(itemPosition, Math.max(count, 0));
+		if (notificationCommitScheduled.compareAndSet(false, true)) {
+			mainHandler.post(notificationCommitRunnable);
+		}
+	}
+
+	/**
+	 * Set the notification text color
+	 *
+	 * @param textColor int
+	 */
+	public void setNotificationTextColor(@ColorInt int textColor) {
+		this.notificationTextColor = textColor;
+		invalidate();
+	}
+
+	/**
+	 * Set the notification background color
+	 *
+	 * @param backgroundColor int
+	 */
+	public void setNotificationBackgroundColor(@ColorInt int backgroundColor) {
+		this.notificationBackgroundColor = backgroundColor;
+		invalidate();
+	}
+
+	/**
+	 * Set the notification typeface
+	 *
+	 * @param typeface Typeface
+	 */
+	public void setNotificationTypeface(Typeface typeface) {
+		notificationRenderer.setTypeface(typeface);
+		invalidate();
 	}
 
 	/**
@@ -828,11 +2181,79 @@ public class AHBottomNavigation extends FrameLayout {
 	 * @return The view at the position, or null
 	 */
 	public View getViewAtPosition(int position) {
-		if (linearLayoutContainer != null && position >= 0
-				&& position < linearLayoutContainer.getChildCount()) {
-			return linearLayoutContainer.getChildAt(position);
+		return getItemView(position);
+	}
+
+	/**
+	 * Adapter of the items in scrollable mode
+	 */
+	private class ScrollableItemsAdapter extends RecyclerView.Adapter<ScrollableItemViewHolder> {
+
+		@Override
+		public ScrollableItemViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+			View view = LayoutInflater.from(context).inflate(R.layout.bottom_navigation_item, parent, false);
+			if (stats != null) {
+				stats.itemInflations++;
+			}
+			view.setLayoutParams(new RecyclerView.LayoutParams(scrollableItemWidth, getNavigationBarHeight()));
+			return new ScrollableItemViewHolder(view);
+		}
+
+		@Override
+		public void onBindViewHolder(ScrollableItemViewHolder holder, int position) {
+			bindItemView(holder.itemView, position, navigationState.getActiveTitleTextSize(),
+					navigationState.getInactiveTitleTextSize());
+		}
+
+		@Override
+		public int getItemCount() {
+			return items.size();
+		}
+	}
+
+	private static class ScrollableItemViewHolder extends RecyclerView.ViewHolder {
+		ScrollableItemViewHolder(View itemView) {
+			super(itemView);
+		}
+	}
+
+	/**
+	 * Fields of an item displayed by its view: title, icon and color
+	 */
+	private static class RenderedItem {
+		final String title;
+		final int drawableRes;
+		final Drawable drawable;
+		final int color;
+
+		RenderedItem(Context context, AHBottomNavigationItem item) {
+			title = item.getTitle(context);
+			drawableRes = item.getDrawableRes();
+			// A drawable resource is resolved again for each view, only the resource is compared
+			drawable = drawableRes == 0 ? item.getDrawable(context) : null;
+			color = item.getColor(context);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof RenderedItem)) {
+				return false;
+			}
+			RenderedItem other = (RenderedItem) o;
+			return drawableRes == other.drawableRes && drawable == other.drawable && color == other.color
+					&& (title != null ? title.equals(other.title) : other.title == null);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = title != null ? title.hashCode() : 0;
+			result = 31 * result + drawableRes;
+			result = 31 * result + (drawable != null ? drawable.hashCode() : 0);
+			return 31 * result + color;
 		}
-		return null;
 	}
 
 	////////////////
@@ -853,6 +2274,55 @@ public class AHBottomNavigation extends FrameLayout {
 		boolean onTabSelected(int position, boolean wasSelected);
 	}
 
+	public interface OnTabReselectedListener {
+		/**
+		 * Called when the current tab has been clicked again
+		 *
+		 * @param position int: Position of the reselected tab
+		 */
+		void onTabReselected(int position);
+	}
+
+	public interface OnTabPressListener {
+		/**
+		 * Called when a tab is touched (ACTION_DOWN), before it is selected
+		 * Useful to start loading the content of the tab (not called when the bottom navigation is disabled)
+		 *
+		 * @param position int: Position of the pressed tab
+		 */
+		void onTabPressed(int position);
+
+		/**
+		 * Called when the press of a tab is abandoned and the tab will not be selected
+		 *
+		 * @param position int: Position of the tab
+		 */
+		void onTabPressCanceled(int position);
+	}
+
+	public interface OnTabSwitchLatencyListener {
+		/**
+		 * Called at the first frame after the content of the selected tab is ready
+		 * The total latency is the sum of the durations
+		 *
+		 * @param position                   int: Position of the selected tab
+		 * @param tapToSelectionMs           long: From the touch (ACTION_UP) to the selection
+		 * @param selectionToContentReadyMs  long: From the selection to markContentReady
+		 * @param contentReadyToNextFrameMs  long: From markContentReady to the next frame
+		 */
+		void onTabSwitchLatency(int position, long tapToSelectionMs, long selectionToContentReadyMs,
+		                        long contentReadyToNextFrameMs);
+	}
+
+	public interface OnTabPrewarmListener {
+		/**
+		 * Called during idle time for a tab likely to be selected next
+		 *
+		 * @param position int: Position of the tab to prewarm (inflate, load data...)
+		 */
+		void onTabPrewarm(int position);
+	}
+
 	public interface OnNavigationPositionListener {
 		/**
 		 * Called when the bottom navigation position is changed
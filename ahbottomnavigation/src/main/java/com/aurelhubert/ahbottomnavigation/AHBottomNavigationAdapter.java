@@ -4,10 +4,11 @@ import android.app.Activity;
 import android.support.annotation.ColorInt;
 import android.support.annotation.MenuRes;
 import android.support.v7.widget.PopupMenu;
+import android.util.SparseIntArray;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,8 +16,13 @@ import java.util.List;
  */
 public class AHBottomNavigationAdapter {
 
+	private Activity activity;
+	private @MenuRes int menuRes;
 	private Menu mMenu;
+	private AHBottomNavigationMenu navigationMenu;
 	private List<AHBottomNavigationItem> navigationItems;
+	private SparseIntArray positionsByMenuId;
+	private int[] menuIds;
 
 	/**
 	 * Constructor
@@ -25,9 +31,39 @@ public class AHBottomNavigationAdapter {
 	 * @param menuRes
 	 */
 	public AHBottomNavigationAdapter(Activity activity, @MenuRes int menuRes) {
-		PopupMenu popupMenu = new PopupMenu(activity, null);
-		mMenu = popupMenu.getMenu();
-		activity.getMenuInflater().inflate(menuRes, mMenu);
+		this.activity = activity;
+		this.menuRes = menuRes;
+		navigationMenu = AHBottomNavigationMenu.inflate(activity, menuRes);
+		buildMenuIdIndex();
+	}
+
+	/**
+	 * Constructor with a menu generated at build time (no XML parsing)
+	 *
+	 * @param activity
+	 * @param navigationMenu
+	 */
+	public AHBottomNavigationAdapter(Activity activity, AHBottomNavigationMenu navigationMenu) {
+		this.activity = activity;
+		this.navigationMenu = navigationMenu;
+		buildMenuIdIndex();
+	}
+
+	/**
+	 * Build the menu id <-> position index
+	 */
+	private void buildMenuIdIndex() {
+		int size = navigationMenu.size();
+		menuIds = new int[size];
+		positionsByMenuId = new SparseIntArray(size);
+		for (int i = 0; i < size; i++) {
+			int menuId = navigationMenu.getItemId(i);
+			menuIds[i] = menuId;
+			// Keep the first position if several items share the same id
+			if (positionsByMenuId.indexOfKey(menuId) < 0) {
+				positionsByMenuId.put(menuId, i);
+			}
+		}
 	}
 
 	/**
@@ -46,36 +82,42 @@ public class AHBottomNavigationAdapter {
 	 * @param colors             int[]: Colors of the item
 	 */
 	public void setupWithBottomNavigation(AHBottomNavigation ahBottomNavigation, @ColorInt int[] colors) {
-		if (navigationItems == null) {
-			navigationItems = new ArrayList<>();
-		} else {
-			navigationItems.clear();
-		}
-
-		if (mMenu != null) {
-			for (int i = 0; i < mMenu.size(); i++) {
-				MenuItem item = mMenu.getItem(i);
-				if (colors != null && colors.length >= mMenu.size() && colors[i] != 0) {
-					AHBottomNavigationItem navigationItem = new AHBottomNavigationItem(String.valueOf(item.getTitle()), item.getIcon(), colors[i]);
-					navigationItems.add(navigationItem);
-				} else {
-					AHBottomNavigationItem navigationItem = new AHBottomNavigationItem(String.valueOf(item.getTitle()), item.getIcon());
-					navigationItems.add(navigationItem);
-				}
-			}
-			ahBottomNavigation.removeAllItems();
-			ahBottomNavigation.addItems(navigationItems);
-		}
+		navigationItems = navigationMenu.createItems(activity, colors);
+		ahBottomNavigation.setItems(navigationItems);
 	}
 
 	/**
 	 * Get Menu Item
+	 * The menu is inflated with a PopupMenu the first time this method is called
+	 * (not available when the adapter is created with a generated menu)
 	 *
 	 * @param index
 	 * @return
+	 * @deprecated Use {@link #getNavigationMenu()} to avoid inflating a Menu
 	 */
+	@Deprecated
 	public MenuItem getMenuItem(int index) {
-		return mMenu.getItem(index);
+		if (mMenu == null) {
+			if (menuRes == 0) {
+				throw new IllegalStateException("The adapter was not created with a menu resource");
+			}
+			PopupMenu popupMenu = new PopupMenu(activity, null);
+			mMenu = popupMenu.getMenu();
+			activity.getMenuInflater().inflate(menuRes, mMenu);
+		}
+		// The hidden items are not in the navigation menu: find the item by id when possible
+		int menuId = navigationMenu.getItemId(index);
+		MenuItem menuItem = menuId != View.NO_ID ? mMenu.findItem(menuId) : null;
+		return menuItem != null ? menuItem : mMenu.getItem(index);
+	}
+
+	/**
+	 * Get the parsed menu (ids, titles, icons and colors of the items)
+	 *
+	 * @return AHBottomNavigationMenu
+	 */
+	public AHBottomNavigationMenu getNavigationMenu() {
+		return navigationMenu;
 	}
 
 	/**
@@ -95,10 +137,30 @@ public class AHBottomNavigationAdapter {
 	 * @return
 	 */
 	public Integer getPositionByMenuId(int menuId) {
-		for (int i = 0; i < mMenu.size(); i++) {
-			if (mMenu.getItem(i).getItemId() == menuId)
-				return i;
+		int position = indexOfMenuId(menuId);
+		return position == -1 ? null : position;
+	}
+
+	/**
+	 * Get position by menu id, without allocation
+	 *
+	 * @param menuId int: Menu item id
+	 * @return int: Position of the item, or -1 if the id is not in the menu
+	 */
+	public int indexOfMenuId(int menuId) {
+		return positionsByMenuId.get(menuId, -1);
+	}
+
+	/**
+	 * Get menu id by position
+	 *
+	 * @param position int: Item position
+	 * @return int: Menu item id, or View.NO_ID if the position is out of bounds
+	 */
+	public int getMenuIdAtPosition(int position) {
+		if (position < 0 || position >= menuIds.length) {
+			return View.NO_ID;
 		}
-		return null;
+		return menuIds[position];
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.aurelhubert.ahbottomnavigation;
+
+import android.view.View;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * AHBottomNavigationAnchoredViews
+ * Registry of the views anchored to the top edge of the bottom navigation, shared by the view
+ * and its behavior. The views are weakly referenced: a view that is not used anymore is dropped.
+ */
+class AHBottomNavigationAnchoredViews {
+
+	private final ArrayList<WeakReference<View>> views = new ArrayList<>();
+
+	AHBottomNavigationAnchoredViews() {
+		// empty
+	}
+
+	/**
+	 * Add a view
+	 *
+	 * @param view View
+	 * @return true if the view was added, false if it was already anchored
+	 */
+	boolean add(View view) {
+		if (view == null || contains(view)) {
+			return false;
+		}
+		views.add(new WeakReference<>(view));
+		return true;
+	}
+
+	/**
+	 * Remove a view
+	 *
+	 * @param view View
+	 * @return true if the view was anchored
+	 */
+	boolean remove(View view) {
+		boolean removed = false;
+		for (int i = views.size() - 1; i >= 0; i--) {
+			View anchoredView = views.get(i).get();
+			if (anchoredView == null || anchoredView == view) {
+				removed |= anchoredView != null;
+				views.remove(i);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Return if a view is anchored, the collected views are dropped
+	 *
+	 * @param view View
+	 */
+	boolean contains(View view) {
+		boolean contains = false;
+		for (int i = views.size() - 1; i >= 0; i--) {
+			View anchoredView = views.get(i).get();
+			if (anchoredView == null) {
+				views.remove(i);
+			} else if (anchoredView == view) {
+				contains = true;
+			}
+		}
+		return contains;
+	}
+
+	int size() {
+		return views.size();
+	}
+
+	/**
+	 * Return the anchored view at the index, null if it was collected
+	 *
+	 * @param index int
+	 */
+	View get(int index) {
+		return views.get(index).get();
+	}
+}
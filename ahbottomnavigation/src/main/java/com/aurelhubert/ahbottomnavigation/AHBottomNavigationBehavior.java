@@ -1,17 +1,22 @@
 package com.aurelhubert.ahbottomnavigation;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.os.Build;
+import android.os.Bundle;
+import android.os.Parcelable;
 import android.support.design.widget.CoordinatorLayout;
 import android.support.design.widget.FloatingActionButton;
 import android.support.design.widget.Snackbar;
-import android.support.design.widget.TabLayout;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.view.ViewPropertyAnimatorCompat;
+import android.support.v4.view.ViewPropertyAnimatorListenerAdapter;
 import android.support.v4.view.ViewPropertyAnimatorUpdateListener;
+import android.support.v4.view.WindowInsetsCompat;
 import android.support.v4.view.animation.LinearOutSlowInInterpolator;
 import android.util.AttributeSet;
 import android.view.View;
@@ -32,7 +37,7 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	private boolean hidden = false;
 	private ViewPropertyAnimatorCompat translationAnimator;
 	private ObjectAnimator translationObjectAnimator;
-	private TabLayout mTabLayout;
+	private boolean tabLayoutAnchored = false;
 	private Snackbar.SnackbarLayout snackbarLayout;
 	private FloatingActionButton floatingActionButton;
 	private int mSnackbarHeight = -1, navigationBarHeight = 0;
@@ -40,6 +45,19 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	private float targetOffset = 0, fabTargetOffset = 0, fabDefaultBottomMargin = 0, snackBarY = 0;
 	private boolean behaviorTranslationEnabled = true;
 	private OnNavigationPositionListener navigationPositionListener;
+	private boolean finalPositionOnly = false;
+	private boolean positionDispatchScheduled = false;
+	private boolean translationCanceled = false;
+	private int lastDispatchedPosition = Integer.MIN_VALUE;
+	private View positionView;
+	private AHBottomNavigationAnchoredViews anchoredViews = new AHBottomNavigationAnchoredViews();
+	private final Runnable positionDispatchRunnable = new Runnable() {
+		@Override
+		public void run() {
+			positionDispatchScheduled = false;
+			dispatchPositionChange();
+		}
+	};
 
 	/**
 	 * Constructor
@@ -64,19 +82,61 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	@Override
 	public boolean onLayoutChild(CoordinatorLayout parent, V child, int layoutDirection) {
 		boolean layoutChild = super.onLayoutChild(parent, child, layoutDirection);
-		if (mTabLayout == null && mTabLayoutId != View.NO_ID) {
-			mTabLayout = findTabLayout(child);
+		if (!tabLayoutAnchored && mTabLayoutId != View.NO_ID && mTabLayoutId != 0) {
+			anchorTabLayout(parent);
 		}
+		updateAnchoredViews(child);
 		return layoutChild;
 	}
 
-	private TabLayout findTabLayout(View child) {
-		if (mTabLayoutId == 0) return null;
-		return (TabLayout) child.findViewById(mTabLayoutId);
+	@Override
+	public WindowInsetsCompat onApplyWindowInsets(CoordinatorLayout coordinatorLayout, V child, WindowInsetsCompat insets) {
+		// CoordinatorLayout only dispatches the insets to the behaviors
+		if (child instanceof AHBottomNavigation) {
+			((AHBottomNavigation) child).applyWindowInsets(insets);
+		}
+		return super.onApplyWindowInsets(coordinatorLayout, child, insets);
+	}
+
+	@Override
+	public Parcelable onSaveInstanceState(CoordinatorLayout parent, V child) {
+		Bundle bundle = new Bundle();
+		bundle.putParcelable("superState", super.onSaveInstanceState(parent, child));
+		bundle.putBoolean("hidden", hidden);
+		bundle.putFloat("translationY", child.getTranslationY());
+		return bundle;
+	}
+
+	@Override
+	public void onRestoreInstanceState(CoordinatorLayout parent, V child, Parcelable state) {
+		if (state instanceof Bundle) {
+			Bundle bundle = (Bundle) state;
+			restoreHidden(child, bundle.getBoolean("hidden"), bundle.getFloat("translationY"));
+			state = bundle.getParcelable("superState");
+		}
+		super.onRestoreInstanceState(parent, child, state);
+	}
+
+	/**
+	 * Anchor the TabLayout set with tabLayoutId to the bottom navigation
+	 *
+	 * @param parent
+	 */
+	private void anchorTabLayout(CoordinatorLayout parent) {
+		View tabLayout = parent.findViewById(mTabLayoutId);
+		if (tabLayout != null) {
+			tabLayoutAnchored = true;
+			addAnchoredView(tabLayout);
+		}
 	}
 
 	@Override
 	public boolean onDependentViewChanged(CoordinatorLayout parent, V child, View dependency) {
+		if (anchoredViews.contains(dependency)) {
+			// The anchored view was laid out or moved: only its translation is updated
+			updateAnchoredView(child, dependency);
+			return false;
+		}
 		return super.onDependentViewChanged(parent, child, dependency);
 	}
 
@@ -91,9 +151,25 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 			updateSnackbar(child, dependency);
 			return true;
 		}
+		if (anchoredViews.contains(dependency) && !dependsOnChild(parent, child, dependency)) {
+			return true;
+		}
 		return super.layoutDependsOn(parent, child, dependency);
 	}
 
+	/**
+	 * Return if the layout of the dependency already depends on the child (for example a
+	 * FloatingActionButton with AHBottomNavigationFABBehavior): the graph must not be cyclic
+	 */
+	private boolean dependsOnChild(CoordinatorLayout parent, V child, View dependency) {
+		ViewGroup.LayoutParams params = dependency.getLayoutParams();
+		if (!(params instanceof CoordinatorLayout.LayoutParams)) {
+			return false;
+		}
+		CoordinatorLayout.Behavior behavior = ((CoordinatorLayout.LayoutParams) params).getBehavior();
+		return behavior != null && behavior.layoutDependsOn(parent, dependency, child);
+	}
+
 	@Override
 	public void onNestedVerticalOverScroll(CoordinatorLayout coordinatorLayout, V child, @ScrollDirection int direction, int currentOverScroll, int totalOverScroll) {
 	}
@@ -132,14 +208,27 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 			return;
 		}
 		if (scrollDirection == ScrollDirection.SCROLL_DIRECTION_DOWN && hidden) {
-			hidden = false;
+			setHidden(child, false);
 			animateOffset(child, 0, false, true);
 		} else if (scrollDirection == ScrollDirection.SCROLL_DIRECTION_UP && !hidden) {
-			hidden = true;
+			setHidden(child, true);
 			animateOffset(child, child.getHeight(), false, true);
 		}
 	}
 
+	/**
+	 * Set the hidden state, the state of the bottom navigation is kept in sync
+	 *
+	 * @param child
+	 * @param hidden
+	 */
+	private void setHidden(V child, boolean hidden) {
+		this.hidden = hidden;
+		if (child instanceof AHBottomNavigation) {
+			((AHBottomNavigation) child).setHiddenState(hidden);
+		}
+	}
+
 	/**
 	 * Animate offset
 	 *
@@ -147,15 +236,20 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	 * @param offset
 	 */
 	private void animateOffset(final V child, final int offset, boolean forceAnimation, boolean withAnimation) {
-		if (!behaviorTranslationEnabled && !forceAnimation) {
-			return;
-		}
-		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) {
-			ensureOrCancelObjectAnimation(child, offset, withAnimation);
-			translationObjectAnimator.start();
-		} else {
-			ensureOrCancelAnimator(child, withAnimation);
-			translationAnimator.translationY(offset).start();
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigationBehavior#animateOffset");
+		try {
+			if (!behaviorTranslationEnabled && !forceAnimation) {
+				return;
+			}
+			if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) {
+				ensureOrCancelObjectAnimation(child, offset, withAnimation);
+				translationObjectAnimator.start();
+			} else {
+				ensureOrCancelAnimator(child, withAnimation);
+				translationAnimator.translationY(offset).start();
+			}
+		} finally {
+			AHHelper.endTraceSection(traced);
 		}
 	}
 
@@ -171,9 +265,24 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 			translationAnimator.setUpdateListener(new ViewPropertyAnimatorUpdateListener() {
 				@Override
 				public void onAnimationUpdate(View view) {
-					if (navigationPositionListener != null) {
-						navigationPositionListener.onPositionChange((int) (view.getMeasuredHeight() - view.getTranslationY() + snackBarY));
-					}
+					updateAnchoredViews(view);
+					updatePosition(view);
+				}
+			});
+			translationAnimator.setListener(new ViewPropertyAnimatorListenerAdapter() {
+				@Override
+				public void onAnimationStart(View view) {
+					translationCanceled = false;
+				}
+
+				@Override
+				public void onAnimationCancel(View view) {
+					translationCanceled = true;
+				}
+
+				@Override
+				public void onAnimationEnd(View view) {
+					onTranslationEnd(view, translationCanceled);
 				}
 			});
 			translationAnimator.setInterpolator(INTERPOLATOR);
@@ -194,7 +303,7 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 			translationObjectAnimator.cancel();
 		}
 
-		translationObjectAnimator = ObjectAnimator.ofFloat(child, View.TRANSLATION_Y, offset);
+		translationObjectAnimator = AHHelper.countAnimator(ObjectAnimator.ofFloat(child, View.TRANSLATION_Y, offset));
 		translationObjectAnimator.setDuration(withAnimation ? ANIM_DURATION : 0);
 		translationObjectAnimator.setInterpolator(INTERPOLATOR);
 		translationObjectAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
@@ -206,14 +315,135 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 					p.setMargins(p.leftMargin, p.topMargin, p.rightMargin, (int) targetOffset);
 					snackbarLayout.requestLayout();
 				}
+				updateAnchoredViews(child);
 				// Pass navigation height to listener
-				if (navigationPositionListener != null) {
-					navigationPositionListener.onPositionChange((int) (child.getMeasuredHeight() - child.getTranslationY() + snackBarY));
-				}
+				updatePosition(child);
+			}
+		});
+		translationObjectAnimator.addListener(new AnimatorListenerAdapter() {
+			private boolean canceled = false;
+
+			@Override
+			public void onAnimationCancel(Animator animation) {
+				canceled = true;
+			}
+
+			@Override
+			public void onAnimationEnd(Animator animation) {
+				onTranslationEnd(child, canceled);
 			}
 		});
 	}
 
+	/**
+	 * Dispatch the position from an animation update
+	 * The update already runs once per frame in the animation pass: the listener is called
+	 * synchronously so that the position does not trail the bottom navigation by one frame
+	 *
+	 * @param child
+	 */
+	private void updatePosition(View child) {
+		if (navigationPositionListener == null || finalPositionOnly) {
+			return;
+		}
+		if (positionDispatchScheduled) {
+			positionDispatchScheduled = false;
+			child.removeCallbacks(positionDispatchRunnable);
+		}
+		positionView = child;
+		dispatchPositionChange();
+	}
+
+	/**
+	 * Schedule a position change for the next frame, for a change made outside an animation frame
+	 * Several changes in the same frame are coalesced into one dispatch
+	 *
+	 * @param child
+	 */
+	private void schedulePositionChange(View child) {
+		if (navigationPositionListener == null) {
+			return;
+		}
+		positionView = child;
+		if (!positionDispatchScheduled) {
+			positionDispatchScheduled = true;
+			ViewCompat.postOnAnimation(child, positionDispatchRunnable);
+		}
+	}
+
+	/**
+	 * Dispatch the final position when the translation animation ends
+	 * A canceled animation is replaced by another one: its position is not final
+	 *
+	 * @param child
+	 * @param canceled true if the animation was canceled
+	 */
+	private void onTranslationEnd(View child, boolean canceled) {
+		updateAnchoredViews(child);
+		if (navigationPositionListener == null || canceled) {
+			return;
+		}
+		if (positionDispatchScheduled) {
+			positionDispatchScheduled = false;
+			child.removeCallbacks(positionDispatchRunnable);
+		}
+		positionView = child;
+		dispatchPositionChange();
+	}
+
+	/**
+	 * Move all the anchored views in one pass so that their bottom edge follows the top edge
+	 * of the bottom navigation (only the translation is updated, no layout is requested)
+	 *
+	 * @param child
+	 */
+	private void updateAnchoredViews(View child) {
+		int size = anchoredViews.size();
+		if (size == 0) {
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			View view = anchoredViews.get(i);
+			if (view != null) {
+				updateAnchoredView(child, view);
+			}
+		}
+	}
+
+	/**
+	 * Move an anchored view so that its bottom edge follows the top edge of the bottom navigation
+	 *
+	 * @param child
+	 * @param view  Anchored view
+	 */
+	private void updateAnchoredView(View child, View view) {
+		if (view.getVisibility() == View.GONE) {
+			return;
+		}
+		int bottomMargin = 0;
+		if (view.getLayoutParams() instanceof ViewGroup.MarginLayoutParams) {
+			bottomMargin = ((ViewGroup.MarginLayoutParams) view.getLayoutParams()).bottomMargin;
+		}
+		float translationY = Math.min(0, child.getY() - (view.getBottom() + bottomMargin));
+		if (view.getTranslationY() != translationY) {
+			view.setTranslationY(translationY);
+		}
+	}
+
+	/**
+	 * Pass the navigation position to the listener, duplicate values are dropped
+	 */
+	private void dispatchPositionChange() {
+		if (navigationPositionListener == null || positionView == null) {
+			return;
+		}
+		int position = (int) (positionView.getMeasuredHeight() - positionView.getTranslationY() + snackBarY);
+		if (position != lastDispatchedPosition) {
+			lastDispatchedPosition = position;
+			navigationPositionListener.onPositionChange(position);
+		}
+	}
+
 
 	public static <V extends View> AHBottomNavigationBehavior<V> from(V view) {
 		ViewGroup.LayoutParams params = view.getLayoutParams();
@@ -229,8 +459,15 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 		return (AHBottomNavigationBehavior<V>) behavior;
 	}
 
+	/**
+	 * Set the id of a TabLayout anchored to the bottom navigation (see addAnchoredView)
+	 * The TabLayout is found in the CoordinatorLayout at the next layout
+	 *
+	 * @param tabId
+	 */
 	public void setTabLayoutId(int tabId) {
 		this.mTabLayoutId = tabId;
+		this.tabLayoutAnchored = false;
 	}
 
 	/**
@@ -247,6 +484,7 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	 */
 	public void setOnNavigationPositionListener(OnNavigationPositionListener navigationHeightListener) {
 		this.navigationPositionListener = navigationHeightListener;
+		this.lastDispatchedPosition = Integer.MIN_VALUE;
 	}
 
 	/**
@@ -254,6 +492,63 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	 */
 	public void removeOnNavigationPositionListener() {
 		this.navigationPositionListener = null;
+		if (positionDispatchScheduled && positionView != null) {
+			positionView.removeCallbacks(positionDispatchRunnable);
+		}
+		positionDispatchScheduled = false;
+		positionView = null;
+	}
+
+	/**
+	 * Set if the OnNavigationPositionListener should only receive the final position
+	 * of the translation animation instead of one update per frame
+	 * The content following the position does not move during the animation
+	 *
+	 * @param finalPositionOnly boolean
+	 */
+	public void setNavigationPositionFinalOnly(boolean finalPositionOnly) {
+		this.finalPositionOnly = finalPositionOnly;
+	}
+
+	/**
+	 * Return if the OnNavigationPositionListener only receives the final position
+	 */
+	public boolean isNavigationPositionFinalOnly() {
+		return finalPositionOnly;
+	}
+
+	/**
+	 * Anchor a view to the top edge of the bottom navigation
+	 * The view is translated with the bottom navigation when it is hidden or shown, or when
+	 * the view is laid out or moved; it is weakly referenced
+	 *
+	 * @param view View to anchor, should be a sibling of the bottom navigation
+	 */
+	public void addAnchoredView(View view) {
+		if (anchoredViews.add(view) && view.getParent() instanceof View) {
+			// Rebuild the dependencies of the CoordinatorLayout with the new view
+			((View) view.getParent()).requestLayout();
+		}
+	}
+
+	/**
+	 * Remove an anchored view and reset its translation
+	 *
+	 * @param view Anchored view
+	 */
+	public void removeAnchoredView(View view) {
+		if (anchoredViews.remove(view)) {
+			view.setTranslationY(0);
+		}
+	}
+
+	/**
+	 * Share the registry of the anchored views of the bottom navigation
+	 *
+	 * @param anchoredViews AHBottomNavigationAnchoredViews
+	 */
+	void setAnchoredViews(AHBottomNavigationAnchoredViews anchoredViews) {
+		this.anchoredViews = anchoredViews;
 	}
 
 	/**
@@ -263,18 +558,39 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	 */
 	public void hideView(V view, int offset, boolean withAnimation) {
 		if (!hidden) {
-			hidden = true;
+			setHidden(view, true);
 			animateOffset(view, offset, true, withAnimation);
 		}
 	}
 
+	/**
+	 * Restore the hidden state and the translation without animation
+	 * Used when the state is restored, before the first frame is drawn
+	 *
+	 * @param view
+	 * @param hidden
+	 * @param translationY
+	 */
+	public void restoreHidden(V view, boolean hidden, float translationY) {
+		setHidden(view, hidden);
+		if (translationAnimator != null) {
+			translationAnimator.cancel();
+		}
+		if (translationObjectAnimator != null) {
+			translationObjectAnimator.cancel();
+		}
+		view.setTranslationY(translationY);
+		updateAnchoredViews(view);
+		schedulePositionChange(view);
+	}
+
 	/**
 	 * Reset AHBottomNavigation position with animation
 	 * @param view
 	 */
 	public void resetOffset(V view, boolean withAnimation) {
 		if (hidden) {
-			hidden = false;
+			setHidden(view, false);
 			animateOffset(view, 0, true, withAnimation);
 		}
 	}
@@ -283,25 +599,29 @@ public class AHBottomNavigationBehavior<V extends View> extends VerticalScrollin
 	 * Update Snackbar bottom margin
 	 */
 	public void updateSnackbar(final View child, View dependency) {
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigationBehavior#updateSnackbar");
+		try {
+			if (dependency != null && dependency instanceof Snackbar.SnackbarLayout) {
 
-		if (dependency != null && dependency instanceof Snackbar.SnackbarLayout) {
+				snackbarLayout = (Snackbar.SnackbarLayout) dependency;
 
-			snackbarLayout = (Snackbar.SnackbarLayout) dependency;
-
-			if (mSnackbarHeight == -1) {
-				mSnackbarHeight = dependency.getHeight();
-			}
+				if (mSnackbarHeight == -1) {
+					mSnackbarHeight = dependency.getHeight();
+				}
 
-			int targetMargin = (int) (child.getMeasuredHeight() - child.getTranslationY());
-			if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-				child.bringToFront();
-			}
+				int targetMargin = (int) (child.getMeasuredHeight() - child.getTranslationY());
+				if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+					child.bringToFront();
+				}
 
-			if (dependency.getLayoutParams() instanceof ViewGroup.MarginLayoutParams) {
-				ViewGroup.MarginLayoutParams p = (ViewGroup.MarginLayoutParams) dependency.getLayoutParams();
-				p.setMargins(p.leftMargin, p.topMargin, p.rightMargin, targetMargin);
-				dependency.requestLayout();
+				if (dependency.getLayoutParams() instanceof ViewGroup.MarginLayoutParams) {
+					ViewGroup.MarginLayoutParams p = (ViewGroup.MarginLayoutParams) dependency.getLayoutParams();
+					p.setMargins(p.leftMargin, p.topMargin, p.rightMargin, targetMargin);
+					dependency.requestLayout();
+				}
 			}
+		} finally {
+			AHHelper.endTraceSection(traced);
 		}
 	}
 	
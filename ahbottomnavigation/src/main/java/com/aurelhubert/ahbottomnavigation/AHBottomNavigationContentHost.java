@@ -0,0 +1,358 @@
+package com.aurelhubert.ahbottomnavigation;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.support.v4.view.ViewCompat;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AHBottomNavigationContentHost
+ * Display the content of the selected tab in a container and keep the detached contents of the
+ * other tabs in a LRU cache (count and memory budget).
+ * An evicted tab is recreated with the factory and its saved hierarchy state is restored.
+ *
+ * bottomNavigation.addOnTabSelectedListener(contentHost);
+ * The memory callbacks are registered while the container is attached to a window.
+ * Call {@link #release()} when the container is destroyed.
+ */
+public class AHBottomNavigationContentHost implements AHBottomNavigation.OnTabSelectedListener, ComponentCallbacks2,
+		View.OnAttachStateChangeListener {
+
+	public static final int DEFAULT_MAX_CACHED_TABS = 2;
+	// Rough size of a view without its bitmaps
+	private static final int VIEW_SIZE_ESTIMATE = 1024;
+	private static final long SIZE_UNKNOWN = -1;
+
+	private static final String STATE_CURRENT_POSITION = "ah_content_host_current_position";
+	private static final String STATE_TAB_PREFIX = "ah_content_host_tab_";
+
+	private final ViewGroup container;
+	private final TabContentFactory factory;
+	private final Context context;
+
+	// Detached contents, from the least to the most recently used
+	private final LinkedHashMap<Integer, CachedTab> cachedTabs = new LinkedHashMap<>(8, 0.75f, true);
+	// Hierarchy states of the evicted tabs
+	private final SparseArray<SparseArray<Parcelable>> savedStates = new SparseArray<>();
+
+	private int maxCachedTabs = DEFAULT_MAX_CACHED_TABS;
+	private long maxCacheSize;
+	private long cacheSize = 0;
+
+	private int currentPosition = AHBottomNavigation.CURRENT_ITEM_NONE;
+	private View currentView;
+	// Estimated size of the current view, SIZE_UNKNOWN until it is detached a first time
+	private long currentSize = SIZE_UNKNOWN;
+	private boolean callbacksRegistered = false;
+
+	/**
+	 * Constructor
+	 *
+	 * @param container ViewGroup: Container of the tab contents
+	 * @param factory   TabContentFactory: Create the content of a tab
+	 */
+	public AHBottomNavigationContentHost(ViewGroup container, TabContentFactory factory) {
+		this.container = container;
+		this.factory = factory;
+		this.context = container.getContext().getApplicationContext();
+		this.maxCacheSize = Runtime.getRuntime().maxMemory() / 16;
+		container.addOnAttachStateChangeListener(this);
+		if (ViewCompat.isAttachedToWindow(container)) {
+			registerCallbacks();
+		}
+	}
+
+	@Override
+	public void onViewAttachedToWindow(View view) {
+		registerCallbacks();
+	}
+
+	@Override
+	public void onViewDetachedFromWindow(View view) {
+		unregisterCallbacks();
+	}
+
+	private void registerCallbacks() {
+		if (!callbacksRegistered) {
+			callbacksRegistered = true;
+			context.registerComponentCallbacks(this);
+		}
+	}
+
+	private void unregisterCallbacks() {
+		if (callbacksRegistered) {
+			callbacksRegistered = false;
+			context.unregisterComponentCallbacks(this);
+		}
+	}
+
+	@Override
+	public boolean onTabSelected(int position, boolean wasSelected) {
+		if (!wasSelected) {
+			showTab(position);
+		}
+		return true;
+	}
+
+	/**
+	 * Display the content of a tab
+	 *
+	 * @param position int: Position of the tab
+	 */
+	public void showTab(int position) {
+		if (position == currentPosition && currentView != null) {
+			return;
+		}
+
+		if (currentView != null) {
+			container.removeView(currentView);
+			// The size is estimated the first time the view is detached, then kept with the view
+			long size = currentSize != SIZE_UNKNOWN ? currentSize : sizeOf(currentPosition, currentView);
+			cachedTabs.put(currentPosition, new CachedTab(currentView, size));
+			cacheSize += size;
+			currentView = null;
+		}
+
+		CachedTab cachedTab = cachedTabs.remove(position);
+		if (cachedTab != null) {
+			cacheSize -= cachedTab.size;
+			currentView = cachedTab.view;
+			currentSize = cachedTab.size;
+			container.addView(currentView);
+		} else {
+			currentView = factory.createTabContent(container, position);
+			currentSize = SIZE_UNKNOWN;
+			container.addView(currentView);
+			SparseArray<Parcelable> state = savedStates.get(position);
+			if (state != null) {
+				currentView.restoreHierarchyState(state);
+				savedStates.remove(position);
+			}
+		}
+		currentPosition = position;
+		trimToSize(maxCachedTabs, maxCacheSize);
+	}
+
+	/**
+	 * Return the content of a tab if it is displayed or cached, null otherwise
+	 *
+	 * @param position int: Position of the tab
+	 */
+	public View getTabContent(int position) {
+		if (position == currentPosition) {
+			return currentView;
+		}
+		CachedTab cachedTab = cachedTabs.get(position);
+		return cachedTab != null ? cachedTab.view : null;
+	}
+
+	/**
+	 * Return the position of the displayed tab
+	 */
+	public int getCurrentPosition() {
+		return currentPosition;
+	}
+
+	/**
+	 * Set the maximum number of detached tabs kept in memory
+	 *
+	 * @param maxCachedTabs int: Number of tabs (0 to disable the cache)
+	 */
+	public void setMaxCachedTabs(int maxCachedTabs) {
+		this.maxCachedTabs = Math.max(0, maxCachedTabs);
+		trimToSize(this.maxCachedTabs, maxCacheSize);
+	}
+
+	/**
+	 * Set the memory budget of the detached tabs
+	 *
+	 * @param maxCacheSize long: Size in bytes, estimated with {@link #sizeOf(int, View)}
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		this.maxCacheSize = Math.max(0, maxCacheSize);
+		trimToSize(maxCachedTabs, this.maxCacheSize);
+	}
+
+	/**
+	 * Evict all the detached tabs (their hierarchy state is kept)
+	 */
+	public void evictAll() {
+		trimToSize(0, 0);
+	}
+
+	/**
+	 * Estimate the size of the displayed tab again the next time it is detached
+	 * (for example after its images were loaded)
+	 */
+	public void invalidateCurrentTabSize() {
+		currentSize = SIZE_UNKNOWN;
+	}
+
+	/**
+	 * Estimate the memory used by the content of a tab
+	 * Called once per view, when it is detached a first time
+	 * By default: a fixed size per view plus the bitmaps of the ImageViews
+	 *
+	 * @param position int: Position of the tab
+	 * @param view     View: Content of the tab
+	 * @return long: Size in bytes
+	 */
+	protected long sizeOf(int position, View view) {
+		return estimateSize(view);
+	}
+
+	private long estimateSize(View view) {
+		long size = VIEW_SIZE_ESTIMATE;
+		if (view instanceof ImageView) {
+			Drawable drawable = ((ImageView) view).getDrawable();
+			if (drawable instanceof BitmapDrawable) {
+				Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+				if (bitmap != null) {
+					size += bitmap.getRowBytes() * bitmap.getHeight();
+				}
+			}
+		}
+		if (view instanceof ViewGroup) {
+			ViewGroup viewGroup = (ViewGroup) view;
+			for (int i = 0; i < viewGroup.getChildCount(); i++) {
+				size += estimateSize(viewGroup.getChildAt(i));
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Evict the least recently used tabs until the cache fits in the budget
+	 */
+	private void trimToSize(int maxCount, long maxSize) {
+		Iterator<Map.Entry<Integer, CachedTab>> iterator = cachedTabs.entrySet().iterator();
+		while (iterator.hasNext() && (cachedTabs.size() > maxCount || cacheSize > maxSize)) {
+			Map.Entry<Integer, CachedTab> entry = iterator.next();
+			iterator.remove();
+			cacheSize -= entry.getValue().size;
+			savedStates.put(entry.getKey(), saveState(entry.getValue().view));
+		}
+	}
+
+	private SparseArray<Parcelable> saveState(View view) {
+		SparseArray<Parcelable> state = new SparseArray<>();
+		view.saveHierarchyState(state);
+		return state;
+	}
+
+	/**
+	 * Save the position and the hierarchy states of the tabs
+	 *
+	 * @param outState Bundle
+	 */
+	public void saveInstanceState(Bundle outState) {
+		outState.putInt(STATE_CURRENT_POSITION, currentPosition);
+		for (int i = 0; i < savedStates.size(); i++) {
+			outState.putSparseParcelableArray(STATE_TAB_PREFIX + savedStates.keyAt(i), savedStates.valueAt(i));
+		}
+		for (Map.Entry<Integer, CachedTab> entry : cachedTabs.entrySet()) {
+			outState.putSparseParcelableArray(STATE_TAB_PREFIX + entry.getKey(), saveState(entry.getValue().view));
+		}
+		if (currentView != null) {
+			outState.putSparseParcelableArray(STATE_TAB_PREFIX + currentPosition, saveState(currentView));
+		}
+	}
+
+	/**
+	 * Restore the hierarchy states of the tabs and display the saved tab
+	 * Must be called before any tab is displayed
+	 *
+	 * @param savedInstanceState Bundle
+	 */
+	public void restoreInstanceState(Bundle savedInstanceState) {
+		if (savedInstanceState == null) {
+			return;
+		}
+		for (String key : savedInstanceState.keySet()) {
+			if (key.startsWith(STATE_TAB_PREFIX)) {
+				int position = Integer.parseInt(key.substring(STATE_TAB_PREFIX.length()));
+				SparseArray<Parcelable> state = savedInstanceState.getSparseParcelableArray(key);
+				if (state != null) {
+					savedStates.put(position, state);
+				}
+			}
+		}
+		int position = savedInstanceState.getInt(STATE_CURRENT_POSITION, AHBottomNavigation.CURRENT_ITEM_NONE);
+		if (position != AHBottomNavigation.CURRENT_ITEM_NONE) {
+			showTab(position);
+		}
+	}
+
+	/**
+	 * Unregister the memory callbacks and remove the contents
+	 */
+	public void release() {
+		container.removeOnAttachStateChangeListener(this);
+		unregisterCallbacks();
+		if (currentView != null) {
+			container.removeView(currentView);
+			currentView = null;
+		}
+		currentSize = SIZE_UNKNOWN;
+		currentPosition = AHBottomNavigation.CURRENT_ITEM_NONE;
+		cachedTabs.clear();
+		cacheSize = 0;
+		savedStates.clear();
+	}
+
+	@Override
+	public void onTrimMemory(int level) {
+		if (level >= TRIM_MEMORY_RUNNING_CRITICAL) {
+			evictAll();
+		} else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+			trimToSize(cachedTabs.size() / 2, cacheSize / 2);
+		}
+	}
+
+	@Override
+	public void onLowMemory() {
+		evictAll();
+	}
+
+	@Override
+	public void onConfigurationChanged(Configuration newConfig) {
+		// Nothing to do
+	}
+
+	/**
+	 * Create the content of a tab
+	 */
+	public interface TabContentFactory {
+		/**
+		 * Called when the content of a tab is not cached
+		 *
+		 * @param container ViewGroup: Container of the content (do not add the view)
+		 * @param position  int: Position of the tab
+		 * @return View: Content of the tab
+		 */
+		View createTabContent(ViewGroup container, int position);
+	}
+
+	private static class CachedTab {
+		final View view;
+		final long size;
+
+		CachedTab(View view, long size) {
+			this.view = view;
+			this.size = size;
+		}
+	}
+}
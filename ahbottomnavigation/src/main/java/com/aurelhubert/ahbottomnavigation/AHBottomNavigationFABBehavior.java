@@ -12,7 +12,8 @@ import android.view.ViewGroup;
 public class AHBottomNavigationFABBehavior extends CoordinatorLayout.Behavior<FloatingActionButton> {
 
 	private int navigationBarHeight = 0;
-	private long lastSnackbarUpdate = 0;
+	private View bottomNavigation;
+	private View snackbarLayout;
 
 	public AHBottomNavigationFABBehavior(int navigationBarHeight) {
 		this.navigationBarHeight = navigationBarHeight;
@@ -30,28 +31,61 @@ public class AHBottomNavigationFABBehavior extends CoordinatorLayout.Behavior<Fl
 
 	@Override
 	public boolean onDependentViewChanged(CoordinatorLayout parent, FloatingActionButton child, View dependency) {
-		updateFloatingActionButton(child, dependency);
+		if (dependency instanceof Snackbar.SnackbarLayout) {
+			snackbarLayout = dependency;
+		} else if (dependency instanceof AHBottomNavigation) {
+			bottomNavigation = dependency;
+		}
+		updateFloatingActionButton(child);
 		return super.onDependentViewChanged(parent, child, dependency);
 	}
 
+	@Override
+	public void onDependentViewRemoved(CoordinatorLayout parent, FloatingActionButton child, View dependency) {
+		if (dependency == snackbarLayout) {
+			snackbarLayout = null;
+		} else if (dependency == bottomNavigation) {
+			bottomNavigation = null;
+		}
+		updateFloatingActionButton(child);
+		super.onDependentViewRemoved(parent, child, dependency);
+	}
+
 	/**
-	 * Update floating action button bottom margin
+	 * Update floating action button translation
+	 * The FAB is kept above the highest of the Snackbar and the AHBottomNavigation, whatever
+	 * dependency triggered the update
 	 */
-	private void updateFloatingActionButton(FloatingActionButton child, View dependency) {
-		if (child != null && dependency != null && dependency instanceof Snackbar.SnackbarLayout) {
-			lastSnackbarUpdate = System.currentTimeMillis();
-			ViewGroup.MarginLayoutParams p = (ViewGroup.MarginLayoutParams) child.getLayoutParams();
-			int fabDefaultBottomMargin = p.bottomMargin;
-			child.setY(dependency.getY() - fabDefaultBottomMargin);
-		} else if (child != null && dependency != null && dependency instanceof AHBottomNavigation) {
-			// Hack to avoid moving the FAB when the AHBottomNavigation is moving (showing or hiding animation)
-			if (System.currentTimeMillis() - lastSnackbarUpdate < 30) {
+	private void updateFloatingActionButton(FloatingActionButton child) {
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigationFABBehavior#updateFloatingActionButton");
+		try {
+			if (child == null) {
 				return;
 			}
-			ViewGroup.MarginLayoutParams p = (ViewGroup.MarginLayoutParams) child.getLayoutParams();
-			int fabDefaultBottomMargin = p.bottomMargin;
-			child.setY(dependency.getY() - fabDefaultBottomMargin);
+
+			float top = Float.MAX_VALUE;
+			if (bottomNavigation != null && bottomNavigation.getVisibility() != View.GONE) {
+				top = Math.min(top, bottomNavigation.getY());
+			}
+			if (snackbarLayout != null && snackbarLayout.getVisibility() != View.GONE) {
+				top = Math.min(top, snackbarLayout.getY());
+			}
+
+			float translationY = 0;
+			if (top != Float.MAX_VALUE) {
+				int fabBottomMargin = 0;
+				if (child.getLayoutParams() instanceof ViewGroup.MarginLayoutParams) {
+					fabBottomMargin = ((ViewGroup.MarginLayoutParams) child.getLayoutParams()).bottomMargin;
+				}
+				translationY = Math.min(0, top - (child.getBottom() + fabBottomMargin));
+			}
+
+			if (child.getTranslationY() != translationY) {
+				child.setTranslationY(translationY);
+			}
+		} finally {
+			AHHelper.endTraceSection(traced);
 		}
 	}
 
-}
\ No newline at end of file
+}
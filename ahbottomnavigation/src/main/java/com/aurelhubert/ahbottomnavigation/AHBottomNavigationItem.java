@@ -21,6 +21,11 @@ public class AHBottomNavigationItem {
 	private Drawable drawable;
 	private int color = Color.GRAY;
 
+	// State of the drawable resolved from the drawable resource, kept for the resources it was
+	// resolved with: each call returns a new drawable, the views tint their own copy
+	private Drawable.ConstantState resolvedState;
+	private Resources resolvedResources;
+
 	private
 	@StringRes
 	int titleRes = 0;
@@ -126,23 +131,48 @@ public class AHBottomNavigationItem {
 	}
 	
 	public Drawable getDrawable(Context context) {
-    if (drawableRes != 0) {
-      try {
-        return VectorDrawableCompat.create(context.getResources(), drawableRes, null);
-      }catch (Resources.NotFoundException e){
-        return ContextCompat.getDrawable(context, drawableRes);
-      }
-    }
-    return drawable;
-  }
+		boolean traced = AHHelper.beginTraceSection("AHBottomNavigationItem#getDrawable");
+		try {
+			if (drawableRes != 0) {
+				Resources resources = context.getResources();
+				if (resolvedState != null && resolvedResources == resources) {
+					return resolvedState.newDrawable(resources).mutate();
+				}
+				Drawable resolvedDrawable;
+				try {
+					resolvedDrawable = VectorDrawableCompat.create(resources, drawableRes, null);
+				} catch (Resources.NotFoundException e) {
+					resolvedDrawable = ContextCompat.getDrawable(context, drawableRes);
+				}
+				if (resolvedDrawable == null) {
+					return null;
+				}
+				resolvedState = resolvedDrawable.getConstantState();
+				resolvedResources = resources;
+				return resolvedDrawable.mutate();
+			}
+			return drawable;
+		} finally {
+			AHHelper.endTraceSection(traced);
+		}
+	}
+
+	@DrawableRes
+	public int getDrawableRes() {
+		return drawableRes;
+	}
 
 	public void setDrawable(@DrawableRes int drawableRes) {
 		this.drawableRes = drawableRes;
 		this.drawable = null;
+		this.resolvedState = null;
+		this.resolvedResources = null;
 	}
 
 	public void setDrawable(Drawable drawable) {
 		this.drawable = drawable;
 		this.drawableRes = 0;
+		this.resolvedState = null;
+		this.resolvedResources = null;
 	}
 }
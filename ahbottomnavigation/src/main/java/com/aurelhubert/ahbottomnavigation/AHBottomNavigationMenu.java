@@ -0,0 +1,202 @@
+package com.aurelhubert.ahbottomnavigation;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.support.annotation.ColorInt;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.MenuRes;
+import android.support.annotation.StringRes;
+import android.view.InflateException;
+import android.view.View;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * AHBottomNavigationMenu
+ * Lightweight model of a menu resource: only the ids, titles and icons of the items are kept
+ * It can be parsed at runtime with {@link #inflate(Context, int)} or generated at build time
+ * (see navigation-menus.gradle)
+ */
+public class AHBottomNavigationMenu {
+
+	private static final String ANDROID_NS = "http://schemas.android.com/apk/res/android";
+	private static final String TAG_MENU = "menu";
+	private static final String TAG_GROUP = "group";
+	private static final String TAG_ITEM = "item";
+
+	private final int[] ids;
+	private final int[] titleRes;
+	private final String[] titles;
+	private final int[] iconRes;
+
+	/**
+	 * Constructor
+	 *
+	 * @param ids      Menu item ids
+	 * @param titleRes Title string resources (0 when the title is a literal)
+	 * @param titles   Literal titles (used when the title resource is 0), can be null
+	 * @param iconRes  Icon drawable resources
+	 */
+	public AHBottomNavigationMenu(int[] ids, @StringRes int[] titleRes, String[] titles, @DrawableRes int[] iconRes) {
+		int size = ids.length;
+		if (titleRes.length != size || iconRes.length != size || (titles != null && titles.length != size)) {
+			throw new IllegalArgumentException("All the arrays of the menu should have the same size");
+		}
+		this.ids = ids;
+		this.titleRes = titleRes;
+		this.titles = titles != null ? titles : new String[size];
+		this.iconRes = iconRes;
+	}
+
+	/**
+	 * Parse a menu resource
+	 * The items of the menu and of its groups are added, sorted by android:orderInCategory
+	 * (file order for the same order); the items or groups with android:visible="false" and
+	 * the sub menus are ignored
+	 *
+	 * @param context Context
+	 * @param menuRes Menu resource
+	 * @return The parsed menu
+	 */
+	public static AHBottomNavigationMenu inflate(Context context, @MenuRes int menuRes) {
+		Resources resources = context.getResources();
+		XmlResourceParser parser = resources.getXml(menuRes);
+		ArrayList<MenuItemEntry> entries = new ArrayList<>(5);
+
+		try {
+			// Only <menu><item/></menu> and <menu><group><item/></group></menu> are items
+			// of the bottom navigation, the other tags (sub menus) are skipped
+			boolean inMenu = false;
+			boolean inGroup = false;
+			int groupOrder = 0;
+			boolean groupVisible = true;
+			int eventType = parser.getEventType();
+			while (eventType != XmlPullParser.END_DOCUMENT) {
+				if (eventType == XmlPullParser.START_TAG) {
+					String name = parser.getName();
+					int depth = parser.getDepth();
+					if (depth == 1) {
+						inMenu = TAG_MENU.equals(name);
+					} else if (inMenu && depth == 2 && TAG_GROUP.equals(name)) {
+						inGroup = true;
+						groupOrder = parser.getAttributeIntValue(ANDROID_NS, "orderInCategory", 0);
+						groupVisible = parser.getAttributeBooleanValue(ANDROID_NS, "visible", true);
+					} else if (inMenu && TAG_ITEM.equals(name) && (depth == 2 || (depth == 3 && inGroup))) {
+						boolean visible = parser.getAttributeBooleanValue(ANDROID_NS, "visible", true);
+						if (visible && (depth == 2 || groupVisible)) {
+							entries.add(new MenuItemEntry(parser, depth == 2 ? 0 : groupOrder));
+						}
+					}
+				} else if (eventType == XmlPullParser.END_TAG && parser.getDepth() == 2 && TAG_GROUP.equals(parser.getName())) {
+					inGroup = false;
+				}
+				eventType = parser.next();
+			}
+		} catch (XmlPullParserException | IOException e) {
+			throw new InflateException("Error inflating menu XML", e);
+		} finally {
+			parser.close();
+		}
+
+		// Stable sort: the items with the same order keep the order of the file
+		Collections.sort(entries, new Comparator<MenuItemEntry>() {
+			@Override
+			public int compare(MenuItemEntry entry1, MenuItemEntry entry2) {
+				return entry1.order < entry2.order ? -1 : (entry1.order == entry2.order ? 0 : 1);
+			}
+		});
+
+		int size = entries.size();
+		int[] ids = new int[size];
+		int[] titleRes = new int[size];
+		String[] titles = new String[size];
+		int[] iconRes = new int[size];
+		for (int i = 0; i < size; i++) {
+			MenuItemEntry entry = entries.get(i);
+			ids[i] = entry.id;
+			titleRes[i] = entry.titleRes;
+			titles[i] = entry.title;
+			iconRes[i] = entry.iconRes;
+		}
+		return new AHBottomNavigationMenu(ids, titleRes, titles, iconRes);
+	}
+
+	/**
+	 * Create the bottom navigation items
+	 * Items only keep resource ids, the drawables are resolved when the items are displayed
+	 *
+	 * @param context Context
+	 * @param colors  Colors of the items (can be null)
+	 * @return The items
+	 */
+	public List<AHBottomNavigationItem> createItems(Context context, @ColorInt int[] colors) {
+		int size = ids.length;
+		List<AHBottomNavigationItem> items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			AHBottomNavigationItem item = new AHBottomNavigationItem(getTitle(context, i), iconRes[i]);
+			if (titleRes[i] != 0) {
+				item.setTitle(titleRes[i]);
+			}
+			if (colors != null && colors.length >= size && colors[i] != 0) {
+				item.setColor(colors[i]);
+			}
+			items.add(item);
+		}
+		return items;
+	}
+
+	/**
+	 * Return the number of items
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	public int getItemId(int position) {
+		return ids[position];
+	}
+
+	public String getTitle(Context context, int position) {
+		if (titleRes[position] != 0) {
+			return context.getString(titleRes[position]);
+		}
+		return titles[position] != null ? titles[position] : "";
+	}
+
+	@StringRes
+	public int getTitleRes(int position) {
+		return titleRes[position];
+	}
+
+	@DrawableRes
+	public int getIconRes(int position) {
+		return iconRes[position];
+	}
+
+	/**
+	 * Item read from the menu resource
+	 */
+	private static class MenuItemEntry {
+		final int id;
+		final int titleRes;
+		final String title;
+		final int iconRes;
+		final int order;
+
+		MenuItemEntry(XmlResourceParser parser, int defaultOrder) {
+			id = parser.getAttributeResourceValue(ANDROID_NS, "id", View.NO_ID);
+			titleRes = parser.getAttributeResourceValue(ANDROID_NS, "title", 0);
+			title = titleRes == 0 ? parser.getAttributeValue(ANDROID_NS, "title") : null;
+			iconRes = parser.getAttributeResourceValue(ANDROID_NS, "icon", 0);
+			order = parser.getAttributeIntValue(ANDROID_NS, "orderInCategory", defaultOrder);
+		}
+	}
+}
@@ -0,0 +1,286 @@
+package com.aurelhubert.ahbottomnavigation;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v4.util.AtomicFile;
+import android.util.Log;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * AHBottomNavigationPrewarmScheduler
+ * Record how often each tab is selected (in a small file) and, when the main thread is idle,
+ * prewarm the tabs most likely to be selected next: one tab per idle slot, most used first.
+ * The prewarming stops on a touch of the bottom navigation or when it is canceled (for example
+ * from Activity.onUserInteraction for the other input events).
+ * The file is resolved, read and written on a serial background executor, the writes are debounced.
+ */
+class AHBottomNavigationPrewarmScheduler implements MessageQueue.IdleHandler {
+
+	private static final String TAG = "AHBottomNavigation";
+	private static final int FILE_VERSION = 1;
+	// Bound of the number of saved counts (no limit in scrollable mode), a larger size is corrupt
+	private static final int MAX_SAVED_COUNTS = 256;
+	// Delay between a selection and the write of the counts, the selections in between share the write
+	private static final long SAVE_DELAY_MS = 5000;
+	private static final Executor IO_EXECUTOR = AsyncTask.SERIAL_EXECUTOR;
+
+	private final Context context;
+	private final String fileName;
+	private final AHBottomNavigation.OnTabPrewarmListener listener;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+
+	// IO executor only
+	private AtomicFile file;
+
+	// Main thread only
+	private int[] counts = new int[0];
+	private boolean countsLoaded = false;
+	private boolean saveScheduled = false;
+	private boolean[] prewarmed = new boolean[0];
+	private int currentPosition = AHBottomNavigation.CURRENT_ITEM_NONE;
+	private boolean scheduled = false;
+
+	private final Runnable saveRunnable = new Runnable() {
+		@Override
+		public void run() {
+			saveScheduled = false;
+			final int[] savedCounts = counts.clone();
+			IO_EXECUTOR.execute(new Runnable() {
+				@Override
+				public void run() {
+					writeCounts(savedCounts);
+				}
+			});
+		}
+	};
+
+	/**
+	 * Constructor, the counts are read in the background
+	 *
+	 * @param context  Context
+	 * @param key      String: Name of the file of the counts (letters, digits, '_' and '-')
+	 * @param listener OnTabPrewarmListener
+	 */
+	AHBottomNavigationPrewarmScheduler(Context context, String key, AHBottomNavigation.OnTabPrewarmListener listener) {
+		// The files directory is resolved on the executor (disk access)
+		this.context = context.getApplicationContext();
+		this.fileName = "ah_bottom_navigation_" + key;
+		this.listener = listener;
+		IO_EXECUTOR.execute(new Runnable() {
+			@Override
+			public void run() {
+				final int[] savedCounts = readCounts();
+				handler.post(new Runnable() {
+					@Override
+					public void run() {
+						mergeCounts(savedCounts);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Record the selection of a tab and prewarm the other tabs at the next idle time
+	 *
+	 * @param position   int: Position of the selected tab
+	 * @param itemsCount int: Number of items
+	 */
+	void onTabSelected(int position, int itemsCount) {
+		ensureCapacity(itemsCount);
+		if (position >= 0 && position < itemsCount) {
+			counts[position]++;
+			// The file is only written once the saved counts are merged
+			if (countsLoaded && !saveScheduled) {
+				saveScheduled = true;
+				handler.postDelayed(saveRunnable, SAVE_DELAY_MS);
+			}
+		}
+		start(position, itemsCount);
+	}
+
+	/**
+	 * Prewarm the tabs other than the current one at the next idle times
+	 *
+	 * @param position   int: Position of the current tab
+	 * @param itemsCount int: Number of items
+	 */
+	void start(int position, int itemsCount) {
+		ensureCapacity(itemsCount);
+		currentPosition = position;
+		if (!scheduled) {
+			scheduled = true;
+			Looper.myQueue().addIdleHandler(this);
+		}
+	}
+
+	/**
+	 * Stop the prewarming until the next call to start (input received)
+	 * The recorded counts are kept and still written
+	 */
+	void stop() {
+		if (scheduled) {
+			scheduled = false;
+			Looper.myQueue().removeIdleHandler(this);
+		}
+	}
+
+	/**
+	 * Write the counts now instead of after the delay (bottom navigation detached)
+	 */
+	void flush() {
+		if (saveScheduled) {
+			handler.removeCallbacks(saveRunnable);
+			saveRunnable.run();
+		}
+	}
+
+	@Override
+	public boolean queueIdle() {
+		if (!scheduled) {
+			return false;
+		}
+		if (!countsLoaded) {
+			// Called again at the next idle time, after the counts are merged
+			return true;
+		}
+
+		// One tab per idle slot
+		int position = nextTabToPrewarm();
+		if (position == AHBottomNavigation.CURRENT_ITEM_NONE) {
+			scheduled = false;
+			return false;
+		}
+		prewarmed[position] = true;
+		listener.onTabPrewarm(position);
+		return true;
+	}
+
+	/**
+	 * Return the most selected tab not prewarmed yet
+	 */
+	private int nextTabToPrewarm() {
+		int position = AHBottomNavigation.CURRENT_ITEM_NONE;
+		for (int i = 0; i < prewarmed.length; i++) {
+			if (i == currentPosition || prewarmed[i]) {
+				continue;
+			}
+			if (position == AHBottomNavigation.CURRENT_ITEM_NONE || counts[i] > counts[position]) {
+				position = i;
+			}
+		}
+		return position;
+	}
+
+	private void ensureCapacity(int itemsCount) {
+		if (prewarmed.length != itemsCount) {
+			// Items changed: the tabs have to be prewarmed again
+			prewarmed = new boolean[itemsCount];
+		}
+		if (counts.length < itemsCount) {
+			counts = Arrays.copyOf(counts, itemsCount);
+		}
+	}
+
+	/**
+	 * Add the selections recorded before the file was read to the saved counts (main thread)
+	 */
+	private void mergeCounts(int[] savedCounts) {
+		countsLoaded = true;
+		boolean selected = false;
+		int[] mergedCounts = new int[Math.max(savedCounts.length, counts.length)];
+		for (int i = 0; i < mergedCounts.length; i++) {
+			int count = i < counts.length ? counts[i] : 0;
+			selected |= count > 0;
+			mergedCounts[i] = (i < savedCounts.length ? savedCounts[i] : 0) + count;
+		}
+		counts = mergedCounts;
+		if (selected && !saveScheduled) {
+			saveScheduled = true;
+			handler.postDelayed(saveRunnable, SAVE_DELAY_MS);
+		}
+	}
+
+	/**
+	 * Return the file of the counts (background thread)
+	 */
+	private AtomicFile getFile() {
+		if (file == null) {
+			file = new AtomicFile(new File(context.getFilesDir(), fileName));
+		}
+		return file;
+	}
+
+	/**
+	 * Read the saved counts (background thread), a corrupt file is ignored
+	 */
+	private int[] readCounts() {
+		DataInputStream input = null;
+		try {
+			input = new DataInputStream(getFile().openRead());
+			if (input.readInt() != FILE_VERSION) {
+				return new int[0];
+			}
+			int size = input.readInt();
+			if (size < 0 || size > MAX_SAVED_COUNTS) {
+				Log.w(TAG, "Invalid tab selection counts file (" + size + " counts)");
+				return new int[0];
+			}
+			int[] savedCounts = new int[size];
+			for (int i = 0; i < size; i++) {
+				savedCounts[i] = input.readInt();
+			}
+			return savedCounts;
+		} catch (FileNotFoundException e) {
+			// No selection recorded yet
+			return new int[0];
+		} catch (IOException | RuntimeException e) {
+			Log.w(TAG, "Unable to read the tab selection counts", e);
+			return new int[0];
+		} finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (IOException e) {
+					// Ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Write the counts (background thread)
+	 */
+	private void writeCounts(int[] counts) {
+		AtomicFile file = getFile();
+		FileOutputStream output = null;
+		try {
+			output = file.startWrite();
+			DataOutputStream data = new DataOutputStream(output);
+			int size = Math.min(counts.length, MAX_SAVED_COUNTS);
+			data.writeInt(FILE_VERSION);
+			data.writeInt(size);
+			for (int i = 0; i < size; i++) {
+				data.writeInt(counts[i]);
+			}
+			data.flush();
+			file.finishWrite(output);
+		} catch (IOException e) {
+			Log.w(TAG, "Unable to write the tab selection counts", e);
+			if (output != null) {
+				file.failWrite(output);
+			}
+		}
+	}
+}
@@ -0,0 +1,326 @@
+package com.aurelhubert.ahbottomnavigation;
+
+import java.util.Arrays;
+
+/**
+ * AHBottomNavigationState
+ * State of the bottom navigation without any Android dependency: items colors, current item,
+ * colored mode, title colors and sizes, item widths, hidden state.
+ * Every setter returns the set of changes (CHANGE_* flags, 0 if nothing changed) to render.
+ */
+public class AHBottomNavigationState {
+
+	public static final int CHANGE_ITEMS = 1;
+	public static final int CHANGE_CURRENT_ITEM = 1 << 1;
+	public static final int CHANGE_CURRENT_COLOR = 1 << 2;
+	public static final int CHANGE_COLORED = 1 << 3;
+	public static final int CHANGE_TITLE_COLORS = 1 << 4;
+	public static final int CHANGE_TITLE_SIZES = 1 << 5;
+	public static final int CHANGE_HIDDEN = 1 << 6;
+
+	public static final int ITEM_NONE = -1;
+
+	private static final int[] NO_COLORS = new int[0];
+	// Half of an item stays visible at the end to show that the items can be scrolled
+	private static final float SCROLLABLE_VISIBLE_ITEMS = 4.5f;
+
+	private int[] itemColors = NO_COLORS;
+	private int currentItem = 0;
+	private int previousItem = ITEM_NONE;
+	private int currentColor = 0;
+	private boolean colored = false;
+	private boolean hidden = false;
+
+	private int titleColorActive, titleColorInactive;
+	private int coloredTitleColorActive, coloredTitleColorInactive;
+	private int itemActiveColor, itemInactiveColor;
+
+	private float defaultActiveTextSize, defaultInactiveTextSize;
+	private float titleActiveTextSize, titleInactiveTextSize;
+
+	private float itemMinWidth, scrollableItemMinWidth, itemMaxWidth;
+
+	public AHBottomNavigationState() {
+		// empty
+	}
+
+	/**
+	 * Set the colors of the items (the number of items is the length of the array)
+	 *
+	 * @param colors int[]: Color of each item
+	 * @return int: Changes
+	 */
+	public int setItemColors(int[] colors) {
+		int changes = 0;
+		if (!Arrays.equals(itemColors, colors)) {
+			itemColors = colors != null ? colors.clone() : NO_COLORS;
+			changes |= CHANGE_ITEMS;
+		}
+		return changes | updateCurrentColor();
+	}
+
+	/**
+	 * Select an item
+	 *
+	 * @param position int: Position of the item
+	 * @return int: Changes
+	 */
+	public int setCurrentItem(int position) {
+		if (position == currentItem) {
+			return 0;
+		}
+		previousItem = currentItem;
+		currentItem = position;
+		return CHANGE_CURRENT_ITEM | updateCurrentColor();
+	}
+
+	/**
+	 * Set the colored mode, the item colors are updated
+	 *
+	 * @param colored boolean
+	 * @return int: Changes
+	 */
+	public int setColored(boolean colored) {
+		int changes = 0;
+		if (this.colored != colored) {
+			this.colored = colored;
+			changes |= CHANGE_COLORED;
+		}
+		return changes | updateItemColors();
+	}
+
+	/**
+	 * Set the title colors of the classic mode
+	 *
+	 * @param activeColor   int: Color of the selected item
+	 * @param inactiveColor int: Color of the other items
+	 * @return int: Changes
+	 */
+	public int setTitleColors(int activeColor, int inactiveColor) {
+		titleColorActive = activeColor;
+		titleColorInactive = inactiveColor;
+		return updateItemColors();
+	}
+
+	/**
+	 * Set the title colors of the colored mode
+	 *
+	 * @param activeColor   int: Color of the selected item
+	 * @param inactiveColor int: Color of the other items
+	 * @return int: Changes
+	 */
+	public int setColoredTitleColors(int activeColor, int inactiveColor) {
+		coloredTitleColorActive = activeColor;
+		coloredTitleColorInactive = inactiveColor;
+		return updateItemColors();
+	}
+
+	/**
+	 * Set the color of the selected item, whatever the mode (until the mode changes)
+	 *
+	 * @param accentColor int
+	 * @return int: Changes
+	 */
+	public int setAccentColor(int accentColor) {
+		titleColorActive = accentColor;
+		return applyItemColors(accentColor, itemInactiveColor);
+	}
+
+	/**
+	 * Set the color of the items not selected, whatever the mode (until the mode changes)
+	 *
+	 * @param inactiveColor int
+	 * @return int: Changes
+	 */
+	public int setInactiveColor(int inactiveColor) {
+		titleColorInactive = inactiveColor;
+		return applyItemColors(itemActiveColor, inactiveColor);
+	}
+
+	/**
+	 * Set the title text sizes used when no size is set with setTitleTextSizes
+	 *
+	 * @param activeSize   float: Size of the selected item
+	 * @param inactiveSize float: Size of the other items
+	 * @return int: Changes
+	 */
+	public int setDefaultTitleTextSizes(float activeSize, float inactiveSize) {
+		float oldActiveSize = getActiveTitleTextSize();
+		float oldInactiveSize = getInactiveTitleTextSize();
+		defaultActiveTextSize = activeSize;
+		defaultInactiveTextSize = inactiveSize;
+		return titleSizesChanges(oldActiveSize, oldInactiveSize);
+	}
+
+	/**
+	 * Set the title text sizes (both sizes must be set, 0 to use the default sizes)
+	 *
+	 * @param activeSize   float: Size of the selected item
+	 * @param inactiveSize float: Size of the other items
+	 * @return int: Changes
+	 */
+	public int setTitleTextSizes(float activeSize, float inactiveSize) {
+		float oldActiveSize = getActiveTitleTextSize();
+		float oldInactiveSize = getInactiveTitleTextSize();
+		titleActiveTextSize = activeSize;
+		titleInactiveTextSize = inactiveSize;
+		return titleSizesChanges(oldActiveSize, oldInactiveSize);
+	}
+
+	/**
+	 * Set the bounds of the item widths
+	 *
+	 * @param minWidth           float: Minimum width of the items
+	 * @param scrollableMinWidth float: Minimum width of the items in scrollable mode
+	 * @param maxWidth           float: Maximum width of the items
+	 * @return int: Changes
+	 */
+	public int setItemWidthBounds(float minWidth, float scrollableMinWidth, float maxWidth) {
+		if (itemMinWidth == minWidth && scrollableItemMinWidth == scrollableMinWidth && itemMaxWidth == maxWidth) {
+			return 0;
+		}
+		itemMinWidth = minWidth;
+		scrollableItemMinWidth = scrollableMinWidth;
+		itemMaxWidth = maxWidth;
+		return CHANGE_ITEMS;
+	}
+
+	/**
+	 * Set the hidden state
+	 *
+	 * @param hidden boolean
+	 * @return int: Changes
+	 */
+	public int setHidden(boolean hidden) {
+		if (this.hidden == hidden) {
+			return 0;
+		}
+		this.hidden = hidden;
+		return CHANGE_HIDDEN;
+	}
+
+	private int applyItemColors(int activeColor, int inactiveColor) {
+		if (itemActiveColor == activeColor && itemInactiveColor == inactiveColor) {
+			return 0;
+		}
+		itemActiveColor = activeColor;
+		itemInactiveColor = inactiveColor;
+		return CHANGE_TITLE_COLORS;
+	}
+
+	private int updateItemColors() {
+		return colored ? applyItemColors(coloredTitleColorActive, coloredTitleColorInactive) :
+				applyItemColors(titleColorActive, titleColorInactive);
+	}
+
+	private int updateCurrentColor() {
+		int color = currentItem >= 0 && currentItem < itemColors.length ? itemColors[currentItem] : currentColor;
+		if (color == currentColor) {
+			return 0;
+		}
+		currentColor = color;
+		return CHANGE_CURRENT_COLOR;
+	}
+
+	private int titleSizesChanges(float oldActiveSize, float oldInactiveSize) {
+		return oldActiveSize != getActiveTitleTextSize() || oldInactiveSize != getInactiveTitleTextSize() ?
+				CHANGE_TITLE_SIZES : 0;
+	}
+
+	public int getItemsCount() {
+		return itemColors.length;
+	}
+
+	public int getItemColor(int position) {
+		return itemColors[position];
+	}
+
+	public int getCurrentItem() {
+		return currentItem;
+	}
+
+	/**
+	 * Return the item selected before the current one, or ITEM_NONE
+	 */
+	public int getPreviousItem() {
+		return previousItem;
+	}
+
+	/**
+	 * Return the color of the current item (background color in colored mode)
+	 */
+	public int getCurrentColor() {
+		return currentColor;
+	}
+
+	public boolean isColored() {
+		return colored;
+	}
+
+	public boolean isHidden() {
+		return hidden;
+	}
+
+	public int getItemActiveColor() {
+		return itemActiveColor;
+	}
+
+	public int getItemInactiveColor() {
+		return itemInactiveColor;
+	}
+
+	/**
+	 * Return the title color of an item
+	 *
+	 * @param position int: Position of the item
+	 */
+	public int getTitleColor(int position) {
+		return position == currentItem ? itemActiveColor : itemInactiveColor;
+	}
+
+	public float getActiveTitleTextSize() {
+		return titleActiveTextSize != 0 && titleInactiveTextSize != 0 ? titleActiveTextSize : defaultActiveTextSize;
+	}
+
+	public float getInactiveTitleTextSize() {
+		return titleActiveTextSize != 0 && titleInactiveTextSize != 0 ? titleInactiveTextSize : defaultInactiveTextSize;
+	}
+
+	/**
+	 * Return the title text size of an item
+	 *
+	 * @param position int: Position of the item
+	 */
+	public float getTitleTextSize(int position) {
+		return position == currentItem ? getActiveTitleTextSize() : getInactiveTitleTextSize();
+	}
+
+	/**
+	 * Return the width of the items sharing the layout width, within the width bounds
+	 *
+	 * @param layoutWidth int: Width of the bottom navigation
+	 * @return float: Width of an item, 0 without width or items
+	 */
+	public float getItemWidth(int layoutWidth) {
+		if (layoutWidth == 0 || itemColors.length == 0) {
+			return 0;
+		}
+		float itemWidth = layoutWidth / itemColors.length;
+		if (itemWidth < itemMinWidth) {
+			itemWidth = itemMinWidth;
+		} else if (itemWidth > itemMaxWidth) {
+			itemWidth = itemMaxWidth;
+		}
+		return itemWidth;
+	}
+
+	/**
+	 * Return the width of the items in scrollable mode, within the width bounds
+	 *
+	 * @param layoutWidth int: Width of the bottom navigation
+	 * @return int: Width of an item
+	 */
+	public int getScrollableItemWidth(int layoutWidth) {
+		return (int) Math.min(Math.max(layoutWidth / SCROLLABLE_VISIBLE_ITEMS, scrollableItemMinWidth), itemMaxWidth);
+	}
+}
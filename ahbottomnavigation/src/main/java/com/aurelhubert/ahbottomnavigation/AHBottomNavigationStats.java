@@ -0,0 +1,78 @@
+package com.aurelhubert.ahbottomnavigation;
+
+/**
+ * AHBottomNavigationStats
+ * Counters of the layout work done by an AHBottomNavigation, to check a layout budget
+ * (for example in a test: reset, switch tab, then compare the counters to the budget)
+ */
+public class AHBottomNavigationStats {
+
+	int layoutRequests;
+	int measurePasses;
+	int itemsRebuilds;
+	int itemInflations;
+	// Animators are counted by AHHelper where they are built
+	private int animatorsBase = AHHelper.getAnimatorsCreated();
+
+	AHBottomNavigationStats() {
+		// empty
+	}
+
+	/**
+	 * Return the number of requestLayout() calls on the bottom navigation
+	 */
+	public int getLayoutRequests() {
+		return layoutRequests;
+	}
+
+	/**
+	 * Return the number of measure passes of the bottom navigation
+	 */
+	public int getMeasurePasses() {
+		return measurePasses;
+	}
+
+	/**
+	 * Return the number of times the items were created
+	 */
+	public int getItemsRebuilds() {
+		return itemsRebuilds;
+	}
+
+	/**
+	 * Return the number of item views inflated
+	 */
+	public int getItemInflations() {
+		return itemInflations;
+	}
+
+	/**
+	 * Return the number of animators created by the library since the reset (tab switches, colored
+	 * background, translation), the animators of all the bottom navigations are counted
+	 */
+	public int getAnimatorsCreated() {
+		return AHHelper.getAnimatorsCreated() - animatorsBase;
+	}
+
+	/**
+	 * Reset all the counters
+	 */
+	public void reset() {
+		layoutRequests = 0;
+		measurePasses = 0;
+		itemsRebuilds = 0;
+		itemInflations = 0;
+		animatorsBase = AHHelper.getAnimatorsCreated();
+	}
+
+	@Override
+	public String toString() {
+		return "AHBottomNavigationStats{" +
+				"layoutRequests=" + layoutRequests +
+				", measurePasses=" + measurePasses +
+				", itemsRebuilds=" + itemsRebuilds +
+				", itemInflations=" + itemInflations +
+				", animatorsCreated=" + getAnimatorsCreated() +
+				'}';
+	}
+}
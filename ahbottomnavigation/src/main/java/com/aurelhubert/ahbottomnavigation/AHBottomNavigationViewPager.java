@@ -1,9 +1,18 @@
 package com.aurelhubert.ahbottomnavigation;
 
 import android.content.Context;
+import android.database.DataSetObserver;
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.support.v4.util.SimpleArrayMap;
+import android.support.v4.view.PagerAdapter;
 import android.support.v4.view.ViewPager;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
 
 /**
  *
@@ -11,6 +20,13 @@ import android.view.MotionEvent;
 public class AHBottomNavigationViewPager extends ViewPager {
 
 	private boolean enabled;
+	private boolean lazyAttachEnabled;
+	private PagerAdapter pagerAdapter;
+	private SinglePageAdapter singlePageAdapter;
+	// Restored before the adapter was set (lazy attach mode)
+	private int restoredSelectedPosition = -1;
+	// The ViewPager does not see the page changes of the lazy attach mode: they are dispatched here
+	private final ArrayList<OnPageChangeListener> pageChangeListeners = new ArrayList<>();
 
 	public AHBottomNavigationViewPager(Context context, AttributeSet attrs) {
 		super(context, attrs);
@@ -35,6 +51,106 @@ public class AHBottomNavigationViewPager extends ViewPager {
 		return false;
 	}
 
+	@Override
+	public void setAdapter(PagerAdapter adapter) {
+		this.pagerAdapter = adapter;
+		if (singlePageAdapter != null) {
+			singlePageAdapter.release();
+			singlePageAdapter = null;
+		}
+		if (lazyAttachEnabled && adapter != null) {
+			singlePageAdapter = new SinglePageAdapter(adapter);
+			if (restoredSelectedPosition >= 0) {
+				singlePageAdapter.setSelectedPosition(restoredSelectedPosition);
+				restoredSelectedPosition = -1;
+			}
+			super.setAdapter(singlePageAdapter);
+		} else {
+			super.setAdapter(adapter);
+		}
+	}
+
+	/**
+	 * Return the adapter set with setAdapter (not the internal adapter of the lazy attach mode)
+	 */
+	@Override
+	public PagerAdapter getAdapter() {
+		return pagerAdapter;
+	}
+
+	@Override
+	public void setCurrentItem(int item) {
+		if (singlePageAdapter != null) {
+			setCurrentItem(item, false);
+			return;
+		}
+		super.setCurrentItem(item);
+	}
+
+	@Override
+	public void setCurrentItem(int item, boolean smoothScroll) {
+		if (singlePageAdapter != null) {
+			if (singlePageAdapter.setSelectedPosition(item)) {
+				for (int i = 0; i < pageChangeListeners.size(); i++) {
+					pageChangeListeners.get(i).onPageSelected(item);
+				}
+			}
+			return;
+		}
+		super.setCurrentItem(item, smoothScroll);
+	}
+
+	@Override
+	public void addOnPageChangeListener(OnPageChangeListener listener) {
+		super.addOnPageChangeListener(listener);
+		pageChangeListeners.add(listener);
+	}
+
+	@Override
+	public void removeOnPageChangeListener(OnPageChangeListener listener) {
+		super.removeOnPageChangeListener(listener);
+		pageChangeListeners.remove(listener);
+	}
+
+	@Override
+	public void clearOnPageChangeListeners() {
+		super.clearOnPageChangeListeners();
+		pageChangeListeners.clear();
+	}
+
+	@Override
+	public Parcelable onSaveInstanceState() {
+		Bundle bundle = new Bundle();
+		bundle.putParcelable("superState", super.onSaveInstanceState());
+		bundle.putInt("selectedPosition", singlePageAdapter != null ? singlePageAdapter.selectedPosition : -1);
+		return bundle;
+	}
+
+	@Override
+	public void onRestoreInstanceState(Parcelable state) {
+		if (state instanceof Bundle) {
+			Bundle bundle = (Bundle) state;
+			int selectedPosition = bundle.getInt("selectedPosition", -1);
+			if (selectedPosition >= 0) {
+				if (singlePageAdapter != null) {
+					singlePageAdapter.setSelectedPosition(selectedPosition);
+				} else {
+					restoredSelectedPosition = selectedPosition;
+				}
+			}
+			state = bundle.getParcelable("superState");
+		}
+		super.onRestoreInstanceState(state);
+	}
+
+	@Override
+	public int getCurrentItem() {
+		if (singlePageAdapter != null) {
+			return singlePageAdapter.selectedPosition;
+		}
+		return super.getCurrentItem();
+	}
+
 	/**
 	 * Enable or disable the swipe navigation
 	 * @param enabled
@@ -42,4 +158,142 @@ public class AHBottomNavigationViewPager extends ViewPager {
 	public void setPagingEnabled(boolean enabled) {
 		this.enabled = enabled;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Enable or disable the lazy attach mode
+	 * Only the selected page is attached and laid out, the other pages are destroyed by the adapter
+	 * (fragments are detached with a FragmentPagerAdapter) and setCurrentItem goes straight to the
+	 * target page without creating the pages in between. The swipe navigation is not available.
+	 *
+	 * @param lazyAttachEnabled
+	 */
+	public void setLazyAttachEnabled(boolean lazyAttachEnabled) {
+		if (this.lazyAttachEnabled == lazyAttachEnabled) {
+			return;
+		}
+		int currentItem = getCurrentItem();
+		this.lazyAttachEnabled = lazyAttachEnabled;
+		if (lazyAttachEnabled) {
+			this.enabled = false;
+		}
+		if (pagerAdapter != null) {
+			setAdapter(pagerAdapter);
+			setCurrentItem(currentItem, false);
+		}
+	}
+
+	/**
+	 * Return if the lazy attach mode is enabled
+	 */
+	public boolean isLazyAttachEnabled() {
+		return lazyAttachEnabled;
+	}
+
+	/**
+	 * Adapter exposing only the selected page of the wrapped adapter
+	 */
+	private static class SinglePageAdapter extends PagerAdapter {
+
+		private final PagerAdapter adapter;
+		private final SimpleArrayMap<Object, Integer> positions = new SimpleArrayMap<>();
+		private final DataSetObserver observer = new DataSetObserver() {
+			@Override
+			public void onChanged() {
+				if (selectedPosition >= adapter.getCount()) {
+					selectedPosition = Math.max(0, adapter.getCount() - 1);
+				}
+				notifyDataSetChanged();
+			}
+
+			@Override
+			public void onInvalidated() {
+				onChanged();
+			}
+		};
+		private int selectedPosition = 0;
+
+		SinglePageAdapter(PagerAdapter adapter) {
+			this.adapter = adapter;
+			adapter.registerDataSetObserver(observer);
+		}
+
+		void release() {
+			adapter.unregisterDataSetObserver(observer);
+		}
+
+		/**
+		 * Select a page
+		 *
+		 * @param position int: Position in the wrapped adapter
+		 * @return true if the selected page changed
+		 */
+		boolean setSelectedPosition(int position) {
+			if (position < 0 || position >= adapter.getCount() || position == selectedPosition) {
+				return false;
+			}
+			selectedPosition = position;
+			// The page of the previous position is destroyed and the new one is instantiated
+			notifyDataSetChanged();
+			return true;
+		}
+
+		@Override
+		public int getCount() {
+			return adapter.getCount() > 0 ? 1 : 0;
+		}
+
+		@Override
+		public void startUpdate(ViewGroup container) {
+			adapter.startUpdate(container);
+		}
+
+		@Override
+		public Object instantiateItem(ViewGroup container, int position) {
+			Object object = adapter.instantiateItem(container, selectedPosition);
+			positions.put(object, selectedPosition);
+			return object;
+		}
+
+		@Override
+		public void destroyItem(ViewGroup container, int position, Object object) {
+			Integer adapterPosition = positions.remove(object);
+			adapter.destroyItem(container, adapterPosition != null ? adapterPosition : selectedPosition, object);
+		}
+
+		@Override
+		public void setPrimaryItem(ViewGroup container, int position, Object object) {
+			adapter.setPrimaryItem(container, selectedPosition, object);
+		}
+
+		@Override
+		public void finishUpdate(ViewGroup container) {
+			adapter.finishUpdate(container);
+		}
+
+		@Override
+		public boolean isViewFromObject(View view, Object object) {
+			return adapter.isViewFromObject(view, object);
+		}
+
+		@Override
+		public int getItemPosition(Object object) {
+			Integer adapterPosition = positions.get(object);
+			return adapterPosition != null && adapterPosition == selectedPosition ? 0 : POSITION_NONE;
+		}
+
+		@Override
+		public Parcelable saveState() {
+			return adapter.saveState();
+		}
+
+		@Override
+		public void restoreState(Parcelable state, ClassLoader loader) {
+			adapter.restoreState(state, loader);
+		}
+
+		@Override
+		public CharSequence getPageTitle(int position) {
+			return adapter.getPageTitle(selectedPosition);
+		}
+	}
+}
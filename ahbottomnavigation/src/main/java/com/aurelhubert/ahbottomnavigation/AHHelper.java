@@ -1,15 +1,20 @@
 package com.aurelhubert.ahbottomnavigation;
 
+import android.animation.Animator;
 import android.animation.ArgbEvaluator;
 import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
 import android.app.Activity;
 import android.content.Context;
 import android.content.ContextWrapper;
+import android.content.res.Configuration;
+import android.content.res.Resources;
 import android.graphics.PorterDuff;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.support.annotation.ColorInt;
 import android.support.v4.graphics.drawable.DrawableCompat;
+import android.support.v4.os.TraceCompat;
 import android.util.DisplayMetrics;
 import android.util.TypedValue;
 import android.view.View;
@@ -19,11 +24,90 @@ import android.view.WindowManager;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
 /**
  *
  */
 public class AHHelper {
 
+	private static final int MAX_UNWRAP_DEPTH = 16;
+
+	// Windows and metrics are cached per context, the metrics are computed once per configuration
+	// (height of the buttons bar, height of the navigation bar declared by the system)
+	private static final WeakHashMap<Context, WeakReference<Window>> windows = new WeakHashMap<>();
+	private static final WeakHashMap<Window, WindowMetrics> windowMetrics = new WeakHashMap<>();
+	private static final WeakHashMap<Window, WindowMetrics> navigationBarMetrics = new WeakHashMap<>();
+
+	// Trace sections are only emitted when enabled, a disabled section costs one static read
+	private static boolean traceEnabled = false;
+
+	// Number of animators built by the library (UI thread), read by AHBottomNavigationStats
+	private static int animatorsCreated = 0;
+
+	/**
+	 * Enable or disable the trace sections (systrace / Perfetto) of the bottom navigation
+	 * Can be changed at any time, a section begun while enabled is always ended
+	 *
+	 * @param enabled boolean
+	 */
+	public static void setTraceEnabled(boolean enabled) {
+		traceEnabled = enabled;
+	}
+
+	/**
+	 * Return if the trace sections are enabled
+	 */
+	public static boolean isTraceEnabled() {
+		return traceEnabled;
+	}
+
+	/**
+	 * Begin a trace section (API 18+) if the tracing is enabled
+	 *
+	 * @param sectionName String
+	 * @return true if the section was begun, to pass to endTraceSection
+	 */
+	static boolean beginTraceSection(String sectionName) {
+		if (traceEnabled) {
+			TraceCompat.beginSection(sectionName);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * End the last trace section if it was begun, whatever the tracing state now: the sections
+	 * stay balanced when the tracing is enabled or disabled in between
+	 *
+	 * @param begun boolean: Value returned by beginTraceSection
+	 */
+	static void endTraceSection(boolean begun) {
+		if (begun) {
+			TraceCompat.endSection();
+		}
+	}
+
+	/**
+	 * Count an animator where it is built
+	 *
+	 * @param animator Animator just created
+	 * @return The animator
+	 */
+	static <T extends Animator> T countAnimator(T animator) {
+		animatorsCreated++;
+		return animator;
+	}
+
+	/**
+	 * Return the number of animators built by the library
+	 */
+	static int getAnimatorsCreated() {
+		return animatorsCreated;
+	}
+
 	/**
 	 * Return a tint drawable
 	 *
@@ -33,22 +117,27 @@ public class AHHelper {
 	 * @return
 	 */
 	public static Drawable getTintDrawable(Drawable drawable, @ColorInt int color, boolean forceTint) {
-		if (forceTint) {
-			drawable.clearColorFilter();
-			drawable.setColorFilter(color, PorterDuff.Mode.SRC_IN);
-			drawable.invalidateSelf();
-			return drawable;
+		boolean traced = AHHelper.beginTraceSection("AHHelper#getTintDrawable");
+		try {
+			if (forceTint) {
+				drawable.clearColorFilter();
+				drawable.setColorFilter(color, PorterDuff.Mode.SRC_IN);
+				drawable.invalidateSelf();
+				return drawable;
+			}
+			Drawable wrapDrawable = DrawableCompat.wrap(drawable).mutate();
+			DrawableCompat.setTint(wrapDrawable, color);
+			return wrapDrawable;
+		} finally {
+			AHHelper.endTraceSection(traced);
 		}
-		Drawable wrapDrawable = DrawableCompat.wrap(drawable).mutate();
-		DrawableCompat.setTint(wrapDrawable, color);
-		return wrapDrawable;
 	}
 
 	/**
 	 * Update top margin with animation
 	 */
 	public static void updateTopMargin(final View view, int fromMargin, int toMargin) {
-		ValueAnimator animator = ValueAnimator.ofFloat(fromMargin, toMargin);
+		ValueAnimator animator = countAnimator(ValueAnimator.ofFloat(fromMargin, toMargin));
 		animator.setDuration(150);
 		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -68,7 +157,7 @@ public class AHHelper {
 	 * Update bottom margin with animation
 	 */
 	public static void updateBottomMargin(final View view, int fromMargin, int toMargin, int duration) {
-		ValueAnimator animator = ValueAnimator.ofFloat(fromMargin, toMargin);
+		ValueAnimator animator = countAnimator(ValueAnimator.ofFloat(fromMargin, toMargin));
 		animator.setDuration(duration);
 		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -88,7 +177,7 @@ public class AHHelper {
 	 * Update left margin with animation
 	 */
 	public static void updateLeftMargin(final View view, int fromMargin, int toMargin) {
-		ValueAnimator animator = ValueAnimator.ofFloat(fromMargin, toMargin);
+		ValueAnimator animator = countAnimator(ValueAnimator.ofFloat(fromMargin, toMargin));
 		animator.setDuration(150);
 		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -108,7 +197,7 @@ public class AHHelper {
 	 * Update text size with animation
 	 */
 	public static void updateTextSize(final TextView textView, float fromSize, float toSize) {
-		ValueAnimator animator = ValueAnimator.ofFloat(fromSize, toSize);
+		ValueAnimator animator = countAnimator(ValueAnimator.ofFloat(fromSize, toSize));
 		animator.setDuration(150);
 		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -124,7 +213,7 @@ public class AHHelper {
 	 * Update alpha
 	 */
 	public static void updateAlpha(final View view, float fromValue, float toValue) {
-		ValueAnimator animator = ValueAnimator.ofFloat(fromValue, toValue);
+		ValueAnimator animator = countAnimator(ValueAnimator.ofFloat(fromValue, toValue));
 		animator.setDuration(150);
 		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -141,7 +230,7 @@ public class AHHelper {
 	 */
 	public static void updateTextColor(final TextView textView, @ColorInt int fromColor,
 	                                   @ColorInt int toColor) {
-		ValueAnimator colorAnimation = ValueAnimator.ofObject(new ArgbEvaluator(), fromColor, toColor);
+		ValueAnimator colorAnimation = countAnimator(ValueAnimator.ofObject(new ArgbEvaluator(), fromColor, toColor));
 		colorAnimation.setDuration(150);
 		colorAnimation.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -157,7 +246,7 @@ public class AHHelper {
 	 */
 	public static void updateViewBackgroundColor(final View view, @ColorInt int fromColor,
 	                                             @ColorInt int toColor) {
-		ValueAnimator colorAnimation = ValueAnimator.ofObject(new ArgbEvaluator(), fromColor, toColor);
+		ValueAnimator colorAnimation = countAnimator(ValueAnimator.ofObject(new ArgbEvaluator(), fromColor, toColor));
 		colorAnimation.setDuration(150);
 		colorAnimation.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -174,7 +263,7 @@ public class AHHelper {
 	public static void updateDrawableColor(final Context context, final Drawable drawable,
 	                                       final ImageView imageView, @ColorInt int fromColor,
 	                                       @ColorInt int toColor, final boolean forceTint) {
-		ValueAnimator colorAnimation = ValueAnimator.ofObject(new ArgbEvaluator(), fromColor, toColor);
+		ValueAnimator colorAnimation = countAnimator(ValueAnimator.ofObject(new ArgbEvaluator(), fromColor, toColor));
 		colorAnimation.setDuration(150);
 		colorAnimation.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -191,7 +280,7 @@ public class AHHelper {
 	 * Update width
 	 */
 	public static void updateWidth(final View view, float fromWidth, float toWidth) {
-		ValueAnimator animator = ValueAnimator.ofFloat(fromWidth, toWidth);
+		ValueAnimator animator = countAnimator(ValueAnimator.ofFloat(fromWidth, toWidth));
 		animator.setDuration(150);
 		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 			@Override
@@ -204,6 +293,51 @@ public class AHHelper {
 		animator.start();
 	}
 
+	/**
+	 * Return a copy of the listeners array with the given listener at the end
+	 * The array is never modified, so it can be iterated without allocation while dispatching
+	 *
+	 * @param listeners Current listeners
+	 * @param listener  Listener to add
+	 * @return The new listeners array
+	 */
+	public static <T> T[] addListener(T[] listeners, T listener) {
+		if (listener == null) {
+			return listeners;
+		}
+		for (T l : listeners) {
+			if (l == listener) {
+				return listeners;
+			}
+		}
+		T[] result = Arrays.copyOf(listeners, listeners.length + 1);
+		result[listeners.length] = listener;
+		return result;
+	}
+
+	/**
+	 * Return a copy of the listeners array without the given listener
+	 *
+	 * @param listeners Current listeners
+	 * @param listener  Listener to remove
+	 * @return The new listeners array
+	 */
+	public static <T> T[] removeListener(T[] listeners, T listener) {
+		int index = -1;
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				index = i;
+				break;
+			}
+		}
+		if (index == -1) {
+			return listeners;
+		}
+		T[] result = Arrays.copyOf(listeners, listeners.length - 1);
+		System.arraycopy(listeners, index + 1, result, index, listeners.length - index - 1);
+		return result;
+	}
+
 	/**
 	 * Check if the status bar is translucent
 	 *
@@ -211,7 +345,10 @@ public class AHHelper {
 	 * @return
 	 */
 	public static boolean isTranslucentStatusBar(Context context) {
-		Window w = unwrap(context).getWindow();
+		Window w = getWindow(context);
+		if (w == null) {
+			return false;
+		}
 		WindowManager.LayoutParams lp = w.getAttributes();
 		int flags = lp.flags;
 		if ((flags & WindowManager.LayoutParams.FLAG_TRANSLUCENT_NAVIGATION) == WindowManager.LayoutParams.FLAG_TRANSLUCENT_NAVIGATION) {
@@ -223,37 +360,158 @@ public class AHHelper {
 
 	/**
 	 * Get the height of the buttons bar
+	 * The value is computed once per window and configuration
 	 *
 	 * @param context Context
 	 * @return
 	 */
 	public static int getSoftButtonsBarSizePort(Context context) {
 		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
-			DisplayMetrics metrics = new DisplayMetrics();
-			Window window = unwrap(context).getWindow();
-			window.getWindowManager().getDefaultDisplay().getMetrics(metrics);
-			int usableHeight = metrics.heightPixels;
-			window.getWindowManager().getDefaultDisplay().getRealMetrics(metrics);
-			int realHeight = metrics.heightPixels;
-			if (realHeight > usableHeight)
-				return realHeight - usableHeight;
-			else
+			Window window = getWindow(context);
+			if (window == null) {
 				return 0;
+			}
+			Configuration configuration = context.getResources().getConfiguration();
+			WindowMetrics metrics = getWindowMetrics(windowMetrics, window);
+			if (!metrics.matches(configuration)) {
+				metrics.update(configuration, computeSoftButtonsBarSize(window));
+			}
+			return metrics.value;
 		}
 		return 0;
 	}
 
+	/**
+	 * Store the height of the buttons bar for the current configuration
+	 * Used when the value is known from the window insets, so the window manager is never queried
+	 *
+	 * @param context            Context
+	 * @param softButtonsBarSize Height of the buttons bar
+	 */
+	public static void setSoftButtonsBarSize(Context context, int softButtonsBarSize) {
+		Window window = getWindow(context);
+		if (window == null) {
+			return;
+		}
+		getWindowMetrics(windowMetrics, window).update(context.getResources().getConfiguration(), softButtonsBarSize);
+	}
+
+	/**
+	 * Return the height of the navigation bar declared by the system, whatever the keyboard
+	 * Used to tell the navigation bar from the keyboard in the bottom window inset
+	 * The value is read once per window and configuration
+	 *
+	 * @param context Context
+	 * @return Height of the navigation bar, 0 if the system declares none
+	 */
+	public static int getNavigationBarSystemHeight(Context context) {
+		Resources resources = context.getResources();
+		Window window = getWindow(context);
+		if (window == null) {
+			return computeNavigationBarSystemHeight(resources);
+		}
+		Configuration configuration = resources.getConfiguration();
+		WindowMetrics metrics = getWindowMetrics(navigationBarMetrics, window);
+		if (!metrics.matches(configuration)) {
+			metrics.update(configuration, computeNavigationBarSystemHeight(resources));
+		}
+		return metrics.value;
+	}
+
+	/**
+	 * Read the height of the navigation bar from the system resources
+	 */
+	private static int computeNavigationBarSystemHeight(Resources resources) {
+		int resourceId = resources.getIdentifier("navigation_bar_height", "dimen", "android");
+		return resourceId > 0 ? resources.getDimensionPixelSize(resourceId) : 0;
+	}
+
+	/**
+	 * Return the metrics of a window from the cache, created if needed
+	 */
+	private static WindowMetrics getWindowMetrics(WeakHashMap<Window, WindowMetrics> cache, Window window) {
+		WindowMetrics metrics = cache.get(window);
+		if (metrics == null) {
+			metrics = new WindowMetrics();
+			cache.put(window, metrics);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Compute the height of the buttons bar with the window manager
+	 */
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+	private static int computeSoftButtonsBarSize(Window window) {
+		DisplayMetrics metrics = new DisplayMetrics();
+		window.getWindowManager().getDefaultDisplay().getMetrics(metrics);
+		int usableHeight = metrics.heightPixels;
+		window.getWindowManager().getDefaultDisplay().getRealMetrics(metrics);
+		int realHeight = metrics.heightPixels;
+		if (realHeight > usableHeight)
+			return realHeight - usableHeight;
+		else
+			return 0;
+	}
+
+	/**
+	 * Return the window of the activity behind the context (cached)
+	 *
+	 * @param context Context
+	 * @return Window, or null if the context is not attached to an activity
+	 */
+	public static Window getWindow(Context context) {
+		WeakReference<Window> reference = windows.get(context);
+		Window window = reference != null ? reference.get() : null;
+		if (window == null) {
+			Activity activity = unwrap(context);
+			if (activity == null) {
+				return null;
+			}
+			window = activity.getWindow();
+			windows.put(context, new WeakReference<>(window));
+		}
+		return window;
+	}
+
 	/**
 	 * Unwrap wactivity
 	 *
 	 * @param context Context
-	 * @return Activity
+	 * @return Activity, or null if the context does not wrap an activity
 	 */
 	public static Activity unwrap(Context context) {
-		while (!(context instanceof Activity)) {
-			ContextWrapper wrapper = (ContextWrapper) context;
-			context = wrapper.getBaseContext();
+		for (int i = 0; i < MAX_UNWRAP_DEPTH && context != null; i++) {
+			if (context instanceof Activity) {
+				return (Activity) context;
+			}
+			if (!(context instanceof ContextWrapper)) {
+				return null;
+			}
+			context = ((ContextWrapper) context).getBaseContext();
+		}
+		return null;
+	}
+
+	/**
+	 * Window metric computed for a configuration
+	 */
+	private static class WindowMetrics {
+		int orientation = Configuration.ORIENTATION_UNDEFINED;
+		int screenWidthDp, screenHeightDp;
+		int value;
+
+		boolean matches(Configuration configuration) {
+			return orientation == configuration.orientation
+					&& screenWidthDp == configuration.screenWidthDp
+					&& screenHeightDp == configuration.screenHeightDp;
+		}
+
+		void update(Configuration configuration, int value) {
+			this.orientation = configuration.orientation;
+			this.screenWidthDp = configuration.screenWidthDp;
+			this.screenHeightDp = configuration.screenHeightDp;
+			this.value = value;
 		}
-		return (Activity) context;
 	}
 }
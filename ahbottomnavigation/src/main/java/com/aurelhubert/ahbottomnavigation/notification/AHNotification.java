@@ -0,0 +1,92 @@
+package com.aurelhubert.ahbottomnavigation.notification;
+
+import android.support.annotation.ColorInt;
+import android.text.TextUtils;
+
+/**
+ * AHNotification
+ * Notification (badge) displayed over an item of the AHBottomNavigation
+ */
+public class AHNotification {
+
+	private String text;
+	@ColorInt
+	private int textColor;
+	@ColorInt
+	private int backgroundColor;
+	// Width measured by AHNotificationRenderer, valid for its measure generation (UI thread only)
+	float measuredWidth;
+	int measureGeneration;
+
+	public AHNotification() {
+		// empty
+	}
+
+	/**
+	 * Return if the notification is empty (nothing is drawn)
+	 */
+	public boolean isEmpty() {
+		return TextUtils.isEmpty(text);
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Return the text color, or 0 to use the default color of the bottom navigation
+	 */
+	@ColorInt
+	public int getTextColor() {
+		return textColor;
+	}
+
+	/**
+	 * Return the background color, or 0 to use the default color of the bottom navigation
+	 */
+	@ColorInt
+	public int getBackgroundColor() {
+		return backgroundColor;
+	}
+
+	/**
+	 * Create a notification with the default colors
+	 *
+	 * @param text Text of the notification
+	 * @return AHNotification
+	 */
+	public static AHNotification justText(String text) {
+		return new Builder().setText(text).build();
+	}
+
+	public static class Builder {
+		private String text;
+		@ColorInt
+		private int textColor;
+		@ColorInt
+		private int backgroundColor;
+
+		public Builder setText(String text) {
+			this.text = text;
+			return this;
+		}
+
+		public Builder setTextColor(@ColorInt int textColor) {
+			this.textColor = textColor;
+			return this;
+		}
+
+		public Builder setBackgroundColor(@ColorInt int backgroundColor) {
+			this.backgroundColor = backgroundColor;
+			return this;
+		}
+
+		public AHNotification build() {
+			AHNotification notification = new AHNotification();
+			notification.text = text;
+			notification.textColor = textColor;
+			notification.backgroundColor = backgroundColor;
+			return notification;
+		}
+	}
+}
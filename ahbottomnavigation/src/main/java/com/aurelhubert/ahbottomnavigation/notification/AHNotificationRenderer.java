@@ -0,0 +1,125 @@
+package com.aurelhubert.ahbottomnavigation.notification;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.support.annotation.ColorInt;
+import android.text.TextPaint;
+
+import com.aurelhubert.ahbottomnavigation.R;
+
+/**
+ * AHNotificationRenderer
+ * Draw the notifications over the items of the bottom navigation (no view is created)
+ */
+public class AHNotificationRenderer {
+
+	// Generation of the measures, a new generation invalidates the widths cached on the notifications
+	// (UI thread only)
+	private static int nextMeasureGeneration = 1;
+
+	private final Paint backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+	private final RectF rect = new RectF();
+	private int measureGeneration = nextMeasureGeneration++;
+
+	private final float height, padding, marginLeft, marginTop;
+	private float textOffsetY;
+
+	public AHNotificationRenderer(Resources resources) {
+		height = resources.getDimension(R.dimen.bottom_navigation_notification_height);
+		padding = resources.getDimension(R.dimen.bottom_navigation_notification_padding);
+		marginLeft = resources.getDimension(R.dimen.bottom_navigation_notification_margin_left);
+		marginTop = resources.getDimension(R.dimen.bottom_navigation_notification_margin_top);
+		textPaint.setTextSize(resources.getDimension(R.dimen.bottom_navigation_notification_text_size));
+		textPaint.setTextAlign(Paint.Align.CENTER);
+		updateTextOffset();
+	}
+
+	/**
+	 * Set the typeface of the notifications
+	 *
+	 * @param typeface Typeface
+	 */
+	public void setTypeface(Typeface typeface) {
+		textPaint.setTypeface(typeface);
+		measureGeneration = nextMeasureGeneration++;
+		updateTextOffset();
+	}
+
+	private void updateTextOffset() {
+		Paint.FontMetrics fontMetrics = textPaint.getFontMetrics();
+		textOffsetY = height / 2 - (fontMetrics.ascent + fontMetrics.descent) / 2;
+	}
+
+	/**
+	 * Return the width of a notification
+	 *
+	 * @param text Text of the notification
+	 * @return The width in pixels
+	 */
+	public float getWidth(String text) {
+		return Math.max(height, textPaint.measureText(text) + 2 * padding);
+	}
+
+	/**
+	 * Return the width of a notification, measured once and cached on the notification
+	 *
+	 * @param notification Notification (not empty)
+	 * @return The width in pixels
+	 */
+	public float getWidth(AHNotification notification) {
+		if (notification.measureGeneration != measureGeneration) {
+			notification.measuredWidth = getWidth(notification.getText());
+			notification.measureGeneration = measureGeneration;
+		}
+		return notification.measuredWidth;
+	}
+
+	/**
+	 * Get the bounds of a notification
+	 *
+	 * @param text        Text of the notification
+	 * @param itemCenterX Horizontal center of the item
+	 * @param itemTop     Top of the item
+	 * @param outBounds   Rect receiving the bounds
+	 */
+	public void getBounds(String text, float itemCenterX, float itemTop, Rect outBounds) {
+		float left = itemCenterX + marginLeft;
+		float top = itemTop + marginTop;
+		outBounds.set((int) left, (int) top, (int) Math.ceil(left + getWidth(text)), (int) Math.ceil(top + height));
+	}
+
+	/**
+	 * Draw a notification
+	 *
+	 * @param canvas                 Canvas
+	 * @param notification           Notification to draw
+	 * @param itemCenterX            Horizontal center of the item
+	 * @param itemTop                Top of the item
+	 * @param defaultTextColor       Text color used when the notification has no text color
+	 * @param defaultBackgroundColor Background color used when the notification has no background color
+	 */
+	public void draw(Canvas canvas, AHNotification notification, float itemCenterX, float itemTop,
+	                 @ColorInt int defaultTextColor, @ColorInt int defaultBackgroundColor) {
+		if (notification == null || notification.isEmpty()) {
+			return;
+		}
+		String text = notification.getText();
+		float left = itemCenterX + marginLeft;
+		float top = itemTop + marginTop;
+		float width = getWidth(notification);
+
+		backgroundPaint.setColor(notification.getBackgroundColor() != 0 ?
+				notification.getBackgroundColor() : defaultBackgroundColor);
+		rect.set(left, top, left + width, top + height);
+		canvas.drawRoundRect(rect, height / 2, height / 2, backgroundPaint);
+
+		textPaint.setColor(notification.getTextColor() != 0 ?
+				notification.getTextColor() : defaultTextColor);
+		canvas.drawText(text, left + width / 2, top + textOffsetY, textPaint);
+	}
+}
@@ -0,0 +1,209 @@
+package com.aurelhubert.ahbottomnavigation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.CHANGE_COLORED;
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.CHANGE_CURRENT_COLOR;
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.CHANGE_CURRENT_ITEM;
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.CHANGE_HIDDEN;
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.CHANGE_ITEMS;
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.CHANGE_TITLE_COLORS;
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.CHANGE_TITLE_SIZES;
+import static com.aurelhubert.ahbottomnavigation.AHBottomNavigationState.ITEM_NONE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Changes returned by the setters of the navigation state (pure JVM, no Android dependency)
+ */
+public class AHBottomNavigationStateTest {
+
+	private static final int RED = 0xffff0000;
+	private static final int GREEN = 0xff00ff00;
+	private static final int BLUE = 0xff0000ff;
+	private static final int WHITE = 0xffffffff;
+	private static final int BLACK = 0xff000000;
+	private static final float DELTA = 0f;
+
+	private AHBottomNavigationState state;
+
+	@Before
+	public void setUp() {
+		state = new AHBottomNavigationState();
+	}
+
+	@Test
+	public void setItemColorsUpdatesTheCurrentColor() {
+		assertEquals(CHANGE_ITEMS | CHANGE_CURRENT_COLOR, state.setItemColors(new int[]{RED, GREEN, BLUE}));
+		assertEquals(3, state.getItemsCount());
+		assertEquals(RED, state.getCurrentColor());
+
+		assertEquals(0, state.setItemColors(new int[]{RED, GREEN, BLUE}));
+		assertEquals(CHANGE_ITEMS, state.setItemColors(new int[]{RED, BLUE}));
+		assertEquals(CHANGE_ITEMS, state.setItemColors(null));
+		assertEquals(0, state.getItemsCount());
+		// The current color is kept without items
+		assertEquals(RED, state.getCurrentColor());
+	}
+
+	@Test
+	public void setItemColorsCopiesTheColors() {
+		int[] colors = new int[]{RED, GREEN};
+		state.setItemColors(colors);
+		colors[0] = BLUE;
+
+		assertEquals(RED, state.getItemColor(0));
+		assertEquals(CHANGE_ITEMS | CHANGE_CURRENT_COLOR, state.setItemColors(colors));
+	}
+
+	@Test
+	public void setCurrentItemTracksThePreviousItem() {
+		state.setItemColors(new int[]{RED, GREEN, RED});
+		assertEquals(ITEM_NONE, state.getPreviousItem());
+
+		assertEquals(CHANGE_CURRENT_ITEM | CHANGE_CURRENT_COLOR, state.setCurrentItem(1));
+		assertEquals(1, state.getCurrentItem());
+		assertEquals(0, state.getPreviousItem());
+		assertEquals(GREEN, state.getCurrentColor());
+
+		assertEquals(0, state.setCurrentItem(1));
+		assertEquals(0, state.getPreviousItem());
+
+		assertEquals(CHANGE_CURRENT_ITEM | CHANGE_CURRENT_COLOR, state.setCurrentItem(2));
+		assertEquals(1, state.getPreviousItem());
+		assertEquals(RED, state.getCurrentColor());
+	}
+
+	@Test
+	public void setCurrentItemWithTheSameColor() {
+		state.setItemColors(new int[]{RED, RED});
+
+		assertEquals(CHANGE_CURRENT_ITEM, state.setCurrentItem(1));
+	}
+
+	@Test
+	public void setColoredSwitchesTheTitleColors() {
+		state.setTitleColors(BLUE, BLACK);
+		state.setColoredTitleColors(WHITE, GREEN);
+		assertEquals(BLUE, state.getItemActiveColor());
+		assertEquals(BLACK, state.getItemInactiveColor());
+
+		assertEquals(CHANGE_COLORED | CHANGE_TITLE_COLORS, state.setColored(true));
+		assertTrue(state.isColored());
+		assertEquals(WHITE, state.getItemActiveColor());
+		assertEquals(GREEN, state.getItemInactiveColor());
+		assertEquals(0, state.setColored(true));
+
+		assertEquals(CHANGE_COLORED | CHANGE_TITLE_COLORS, state.setColored(false));
+		assertEquals(BLUE, state.getItemActiveColor());
+	}
+
+	@Test
+	public void setTitleColorsOfTheOtherModeChangesNothing() {
+		state.setTitleColors(BLUE, BLACK);
+
+		assertEquals(0, state.setColoredTitleColors(WHITE, GREEN));
+		assertEquals(CHANGE_TITLE_COLORS, state.setTitleColors(RED, BLACK));
+		assertEquals(0, state.setTitleColors(RED, BLACK));
+	}
+
+	@Test
+	public void setAccentAndInactiveColors() {
+		state.setTitleColors(BLUE, BLACK);
+		state.setColored(true);
+
+		// Applied whatever the mode
+		assertEquals(CHANGE_TITLE_COLORS, state.setAccentColor(RED));
+		assertEquals(RED, state.getItemActiveColor());
+		assertEquals(0, state.setAccentColor(RED));
+		assertEquals(CHANGE_TITLE_COLORS, state.setInactiveColor(GREEN));
+		assertEquals(GREEN, state.getItemInactiveColor());
+
+		// Kept as the classic mode colors
+		state.setColored(false);
+		assertEquals(RED, state.getItemActiveColor());
+		assertEquals(GREEN, state.getItemInactiveColor());
+	}
+
+	@Test
+	public void getTitleColorOfTheCurrentItem() {
+		state.setItemColors(new int[]{RED, GREEN});
+		state.setTitleColors(BLUE, BLACK);
+
+		assertEquals(BLUE, state.getTitleColor(0));
+		assertEquals(BLACK, state.getTitleColor(1));
+		state.setCurrentItem(1);
+		assertEquals(BLACK, state.getTitleColor(0));
+		assertEquals(BLUE, state.getTitleColor(1));
+	}
+
+	@Test
+	public void titleTextSizesFallBackToTheDefaultSizes() {
+		assertEquals(CHANGE_TITLE_SIZES, state.setDefaultTitleTextSizes(14f, 12f));
+		assertEquals(14f, state.getActiveTitleTextSize(), DELTA);
+		assertEquals(12f, state.getInactiveTitleTextSize(), DELTA);
+
+		assertEquals(CHANGE_TITLE_SIZES, state.setTitleTextSizes(18f, 16f));
+		assertEquals(18f, state.getActiveTitleTextSize(), DELTA);
+		assertEquals(16f, state.getInactiveTitleTextSize(), DELTA);
+		assertEquals(0, state.setTitleTextSizes(18f, 16f));
+		// The default sizes are hidden by the set sizes
+		assertEquals(0, state.setDefaultTitleTextSizes(10f, 8f));
+
+		// Both sizes must be set
+		assertEquals(CHANGE_TITLE_SIZES, state.setTitleTextSizes(18f, 0f));
+		assertEquals(10f, state.getActiveTitleTextSize(), DELTA);
+		assertEquals(8f, state.getInactiveTitleTextSize(), DELTA);
+	}
+
+	@Test
+	public void getTitleTextSizeOfTheCurrentItem() {
+		state.setItemColors(new int[]{RED, GREEN});
+		state.setTitleTextSizes(18f, 16f);
+
+		assertEquals(18f, state.getTitleTextSize(0), DELTA);
+		assertEquals(16f, state.getTitleTextSize(1), DELTA);
+	}
+
+	@Test
+	public void setItemWidthBounds() {
+		assertEquals(CHANGE_ITEMS, state.setItemWidthBounds(80f, 96f, 168f));
+		assertEquals(0, state.setItemWidthBounds(80f, 96f, 168f));
+		assertEquals(CHANGE_ITEMS, state.setItemWidthBounds(80f, 96f, 200f));
+	}
+
+	@Test
+	public void itemWidthIsSharedWithinTheBounds() {
+		state.setItemWidthBounds(80f, 96f, 168f);
+		assertEquals(0f, state.getItemWidth(480), DELTA);
+
+		state.setItemColors(new int[]{RED, GREEN, BLUE});
+		assertEquals(0f, state.getItemWidth(0), DELTA);
+		assertEquals(100f, state.getItemWidth(300), DELTA);
+		// Whole pixels
+		assertEquals(100f, state.getItemWidth(301), DELTA);
+		assertEquals(80f, state.getItemWidth(180), DELTA);
+		assertEquals(168f, state.getItemWidth(1080), DELTA);
+	}
+
+	@Test
+	public void scrollableItemWidthShowsHalfAnItemAtTheEnd() {
+		state.setItemWidthBounds(80f, 96f, 168f);
+
+		assertEquals(100, state.getScrollableItemWidth(450));
+		assertEquals(96, state.getScrollableItemWidth(360));
+		assertEquals(168, state.getScrollableItemWidth(1080));
+	}
+
+	@Test
+	public void setHidden() {
+		assertFalse(state.isHidden());
+		assertEquals(CHANGE_HIDDEN, state.setHidden(true));
+		assertTrue(state.isHidden());
+		assertEquals(0, state.setHidden(true));
+		assertEquals(CHANGE_HIDDEN, state.setHidden(false));
+		assertFalse(state.isHidden());
+	}
+}
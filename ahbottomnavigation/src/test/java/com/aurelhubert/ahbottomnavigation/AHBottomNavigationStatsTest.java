@@ -0,0 +1,244 @@
+package com.aurelhubert.ahbottomnavigation;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.design.widget.Snackbar;
+import android.view.ContextThemeWrapper;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Layout budget of the bottom navigation: tab switches and item updates must not rebuild
+ * or inflate the items, and must stay within a few layout requests, measures and animators
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class AHBottomNavigationStatsTest {
+
+	private static final int WIDTH = 1080;
+	private static final int HEIGHT = 168;
+	private static final int SCREEN_HEIGHT = 1920;
+	private static final int ITEMS_COUNT = 3;
+	private static final int MAX_ITEMS_COUNT = 5;
+	private static final int SWITCHES = 12;
+	private static final int HIDE_SHOW_CYCLES = 4;
+
+	// Budget of one tab switch
+	private static final int LAYOUT_REQUESTS_PER_SWITCH = 2;
+	private static final int MEASURE_PASSES_PER_SWITCH = 1;
+	// Title color, title size and icon color of the selected and the previous items
+	private static final int ANIMATORS_PER_SWITCH = 6;
+	// Circular reveal of the background in colored mode
+	private static final int COLORED_ANIMATORS_PER_SWITCH = ANIMATORS_PER_SWITCH + 1;
+	// Budget of one hide or show: the translation animator at most (before KitKat)
+	private static final int LAYOUT_REQUESTS_PER_HIDE_SHOW = 1;
+	private static final int ANIMATORS_PER_HIDE_SHOW = 1;
+
+	private Activity activity;
+	private AHBottomNavigation bottomNavigation;
+	private AHBottomNavigationStats stats;
+
+	@Before
+	public void setUp() {
+		activity = Robolectric.setupActivity(Activity.class);
+		FrameLayout root = new FrameLayout(activity);
+		activity.setContentView(root);
+
+		bottomNavigation = new AHBottomNavigation(activity);
+		root.addView(bottomNavigation, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, HEIGHT));
+		bottomNavigation.setItems(createItems(ITEMS_COUNT));
+		bottomNavigation.setStatsEnabled(true);
+		stats = bottomNavigation.getStats();
+		layout();
+		stats.reset();
+	}
+
+	@Test
+	public void tabSwitchesStayInTheLayoutBudget() {
+		for (int i = 1; i <= SWITCHES; i++) {
+			bottomNavigation.setCurrentItem(i % ITEMS_COUNT);
+			layout();
+		}
+
+		assertEquals(0, stats.getItemsRebuilds());
+		assertEquals(0, stats.getItemInflations());
+		assertBudget("layout requests", stats.getLayoutRequests(), LAYOUT_REQUESTS_PER_SWITCH * SWITCHES);
+		assertBudget("measure passes", stats.getMeasurePasses(), MEASURE_PASSES_PER_SWITCH * SWITCHES);
+		assertBudget("animators", stats.getAnimatorsCreated(), ANIMATORS_PER_SWITCH * SWITCHES);
+	}
+
+	@Test
+	public void reselectionDoesNotAnimate() {
+		bottomNavigation.setCurrentItem(0);
+		layout();
+
+		assertEquals(0, stats.getAnimatorsCreated());
+		assertEquals(0, stats.getItemsRebuilds());
+	}
+
+	@Test
+	public void setItemsRebuildsTheItemsOnce() {
+		bottomNavigation.setItems(createItems(ITEMS_COUNT));
+		layout();
+
+		assertEquals(1, stats.getItemsRebuilds());
+		assertEquals(ITEMS_COUNT, stats.getItemInflations());
+	}
+
+	@Test
+	public void maxItemsAreBuiltOnceAndSwitchedInTheLayoutBudget() {
+		bottomNavigation.setItems(createItems(MAX_ITEMS_COUNT));
+		layout();
+
+		assertEquals(1, stats.getItemsRebuilds());
+		assertEquals(MAX_ITEMS_COUNT, stats.getItemInflations());
+
+		stats.reset();
+		for (int i = 1; i <= SWITCHES; i++) {
+			bottomNavigation.setCurrentItem(i % MAX_ITEMS_COUNT);
+			layout();
+		}
+
+		assertEquals(0, stats.getItemsRebuilds());
+		assertEquals(0, stats.getItemInflations());
+		assertBudget("layout requests", stats.getLayoutRequests(), LAYOUT_REQUESTS_PER_SWITCH * SWITCHES);
+		assertBudget("measure passes", stats.getMeasurePasses(), MEASURE_PASSES_PER_SWITCH * SWITCHES);
+		assertBudget("animators", stats.getAnimatorsCreated(), ANIMATORS_PER_SWITCH * SWITCHES);
+	}
+
+	@Test
+	public void coloredModeIsToggledWithoutRebuild() {
+		bottomNavigation.setColored(true);
+		layout();
+		bottomNavigation.setColored(false);
+		layout();
+
+		assertEquals(0, stats.getItemsRebuilds());
+		assertEquals(0, stats.getItemInflations());
+		assertEquals(0, stats.getAnimatorsCreated());
+		assertBudget("layout requests", stats.getLayoutRequests(), LAYOUT_REQUESTS_PER_SWITCH * 2);
+		assertBudget("measure passes", stats.getMeasurePasses(), MEASURE_PASSES_PER_SWITCH * 2);
+
+		bottomNavigation.setColored(true);
+		layout();
+		stats.reset();
+		for (int i = 1; i <= SWITCHES; i++) {
+			bottomNavigation.setCurrentItem(i % ITEMS_COUNT);
+			layout();
+		}
+
+		assertEquals(0, stats.getItemsRebuilds());
+		assertEquals(0, stats.getItemInflations());
+		assertBudget("layout requests", stats.getLayoutRequests(), LAYOUT_REQUESTS_PER_SWITCH * SWITCHES);
+		assertBudget("measure passes", stats.getMeasurePasses(), MEASURE_PASSES_PER_SWITCH * SWITCHES);
+		assertBudget("animators", stats.getAnimatorsCreated(), COLORED_ANIMATORS_PER_SWITCH * SWITCHES);
+	}
+
+	@Test
+	public void hideAndShowWithASnackbarStayInTheLayoutBudget() {
+		// The CoordinatorLayout and the Snackbar require an AppCompat theme
+		ContextThemeWrapper context = new ContextThemeWrapper(activity, R.style.Theme_AppCompat_Light);
+		CoordinatorLayout root = new CoordinatorLayout(context);
+		activity.setContentView(root);
+		AHBottomNavigation bottomNavigation = new AHBottomNavigation(context);
+		CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(
+				ViewGroup.LayoutParams.MATCH_PARENT, HEIGHT);
+		params.gravity = Gravity.BOTTOM;
+		root.addView(bottomNavigation, params);
+		bottomNavigation.setItems(createItems(ITEMS_COUNT));
+		bottomNavigation.setStatsEnabled(true);
+		AHBottomNavigationStats stats = bottomNavigation.getStats();
+		layout(root);
+
+		Snackbar.make(root, "Snackbar", Snackbar.LENGTH_INDEFINITE).show();
+		ShadowLooper.runUiThreadTasks();
+		layout(root);
+		stats.reset();
+
+		for (int i = 0; i < HIDE_SHOW_CYCLES; i++) {
+			bottomNavigation.hideBottomNavigation(false);
+			layout(root);
+			assertTrue(bottomNavigation.isHidden());
+			bottomNavigation.restoreBottomNavigation(false);
+			layout(root);
+			assertFalse(bottomNavigation.isHidden());
+		}
+
+		int actions = HIDE_SHOW_CYCLES * 2;
+		assertEquals(0, stats.getItemsRebuilds());
+		assertEquals(0, stats.getItemInflations());
+		assertBudget("layout requests", stats.getLayoutRequests(), LAYOUT_REQUESTS_PER_HIDE_SHOW * actions);
+		assertBudget("measure passes", stats.getMeasurePasses(), MEASURE_PASSES_PER_SWITCH * actions);
+		assertBudget("animators", stats.getAnimatorsCreated(), ANIMATORS_PER_HIDE_SHOW * actions);
+	}
+
+	@Test
+	public void publishedItemsAreBoundWithoutRebuild() {
+		int[] colors = new int[]{Color.RED, Color.GREEN, Color.BLUE};
+		List<AHBottomNavigationItem> items = new ArrayList<>(ITEMS_COUNT);
+		for (int i = 0; i < ITEMS_COUNT; i++) {
+			items.add(new AHBottomNavigationItem("Published " + i, new ColorDrawable(colors[i])));
+		}
+		bottomNavigation.publishItems(createItems(ITEMS_COUNT));
+		bottomNavigation.publishItems(items);
+		ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+		layout();
+
+		assertEquals(0, stats.getItemsRebuilds());
+		assertEquals(0, stats.getItemInflations());
+		// Only the last published items are bound
+		for (int i = 0; i < ITEMS_COUNT; i++) {
+			View view = bottomNavigation.getViewAtPosition(i);
+			TextView title = (TextView) view.findViewById(R.id.bottom_navigation_item_title);
+			ImageView icon = (ImageView) view.findViewById(R.id.bottom_navigation_item_icon);
+			assertEquals("Published " + i, title.getText().toString());
+			assertTrue(icon.getDrawable() instanceof ColorDrawable);
+			assertEquals(colors[i], ((ColorDrawable) icon.getDrawable()).getColor());
+		}
+	}
+
+	private void layout() {
+		bottomNavigation.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+				View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+		bottomNavigation.layout(0, 0, WIDTH, HEIGHT);
+	}
+
+	private static void layout(View root) {
+		root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+				View.MeasureSpec.makeMeasureSpec(SCREEN_HEIGHT, View.MeasureSpec.EXACTLY));
+		root.layout(0, 0, WIDTH, SCREEN_HEIGHT);
+	}
+
+	private static List<AHBottomNavigationItem> createItems(int count) {
+		List<AHBottomNavigationItem> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			items.add(new AHBottomNavigationItem("Tab " + i, new ColorDrawable(Color.BLACK)));
+		}
+		return items;
+	}
+
+	private static void assertBudget(String name, int value, int budget) {
+		assertTrue(name + ": " + value + " over the budget of " + budget, value <= budget);
+	}
+}
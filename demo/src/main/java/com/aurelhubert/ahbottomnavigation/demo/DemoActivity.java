@@ -63,7 +63,7 @@ public class DemoActivity extends AppCompatActivity {
 
 		if (useMenuResource) {
 			tabColors = getApplicationContext().getResources().getIntArray(R.array.tab_colors);
-			navigationAdapter = new AHBottomNavigationAdapter(this, R.menu.bottom_navigation_menu_3);
+			navigationAdapter = new AHBottomNavigationAdapter(this, DemoNavigationMenus.bottomNavigationMenu3());
 			navigationAdapter.setupWithBottomNavigation(bottomNavigation, tabColors);
 		} else {
 			AHBottomNavigationItem item1 = new AHBottomNavigationItem(R.string.tab_1, R.drawable.ic_apps_black_24dp, R.color.color_tab_1);
@@ -184,7 +184,7 @@ public class DemoActivity extends AppCompatActivity {
 		});
 		*/
 
-		viewPager.setOffscreenPageLimit(4);
+		viewPager.setLazyAttachEnabled(true);
 		adapter = new DemoViewPagerAdapter(getSupportFragmentManager());
 		viewPager.setAdapter(adapter);
 
@@ -230,11 +230,11 @@ public class DemoActivity extends AppCompatActivity {
 
 		if (useMenuResource) {
 			if (addItems) {
-				navigationAdapter = new AHBottomNavigationAdapter(this, R.menu.bottom_navigation_menu_5);
+				navigationAdapter = new AHBottomNavigationAdapter(this, DemoNavigationMenus.bottomNavigationMenu5());
 				navigationAdapter.setupWithBottomNavigation(bottomNavigation, tabColors);
 				bottomNavigation.setNotification("1", 3);
 			} else {
-				navigationAdapter = new AHBottomNavigationAdapter(this, R.menu.bottom_navigation_menu_3);
+				navigationAdapter = new AHBottomNavigationAdapter(this, DemoNavigationMenus.bottomNavigationMenu3());
 				navigationAdapter.setupWithBottomNavigation(bottomNavigation, tabColors);
 			}
 